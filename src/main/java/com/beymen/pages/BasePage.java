@@ -1,9 +1,17 @@
 package com.beymen.pages;
 
+import com.beymen.utils.ConfigReader;
+import com.beymen.utils.DriverManager;
+import com.beymen.utils.LocatorRegistry;
+import com.beymen.utils.NetworkMonitor;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -11,7 +19,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Base Page class that contains common functionality for all page objects
@@ -24,8 +38,25 @@ public abstract class BasePage {
     protected JavascriptExecutor jsExecutor;
     protected static final Logger logger = LogManager.getLogger(BasePage.class);
     
-    // Default timeout - reduced from 10 to 8 seconds
-    private static final int DEFAULT_TIMEOUT = 8;
+    // Installs a MutationObserver once per document and returns milliseconds since the last mutation
+    private static final String DOM_QUIET_TIME_SCRIPT =
+            "if (!window.__domQuietObserver) {"
+            + "  window.__lastDomMutation = Date.now();"
+            + "  window.__domQuietObserver = new MutationObserver(function () { window.__lastDomMutation = Date.now(); });"
+            + "  window.__domQuietObserver.observe(document.documentElement || document,"
+            + "    { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "}"
+            + "return Date.now() - window.__lastDomMutation;";
+    
+    // Navigation timing of the current document, null when the browser does not expose it
+    private static final String PAGE_TIMING_SCRIPT =
+            "var n = performance.getEntriesByType('navigation')[0];"
+            + "if (!n) { return null; }"
+            + "return { path: location.pathname, dcl: Math.round(n.domContentLoadedEventEnd),"
+            + "  load: Math.round(n.loadEventEnd), resources: performance.getEntriesByType('resource').length };";
+    
+    // How long optional popups and banners may take to render before they are considered absent
+    protected static final Duration OPTIONAL_ELEMENT_DEADLINE = Duration.ofMillis(1500);
     
     /**
      * Constructor for BasePage
@@ -33,7 +64,8 @@ public abstract class BasePage {
      */
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
+        this.wait = new WebDriverWait(driver, getDefaultTimeout(), getPollingInterval());
+        this.wait.ignoring(StaleElementReferenceException.class);
         this.jsExecutor = (JavascriptExecutor) driver;
         PageFactory.initElements(driver, this);
     }
@@ -104,6 +136,151 @@ public abstract class BasePage {
         return driver.findElements(locator);
     }
     
+    /**
+     * Probe for an optional element without paying the implicit wait
+     * The implicit wait is set to zero for the probe and an explicit short deadline is used instead
+     * @param locator By locator of the optional element
+     * @param deadline how long the element may take to appear (Duration.ZERO for a single check)
+     * @return the visible element, or empty if it did not appear before the deadline
+     */
+    protected Optional<WebElement> probeVisible(By locator, Duration deadline) {
+        return withoutImplicitWait(() -> {
+            try {
+                WebDriverWait probeWait = new WebDriverWait(driver, deadline, getPollingInterval());
+                probeWait.ignoring(StaleElementReferenceException.class);
+                return Optional.of(probeWait.until(d -> {
+                    for (WebElement element : d.findElements(locator)) {
+                        if (element.isDisplayed()) {
+                            return element;
+                        }
+                    }
+                    return null;
+                }));
+            } catch (TimeoutException e) {
+                return Optional.empty();
+            }
+        });
+    }
+    
+    /**
+     * Check that an optional element is absent (not present or not visible) right now
+     * @param locator By locator of the optional element
+     * @return true if no visible element matches
+     */
+    protected boolean isAbsent(By locator) {
+        return !probeVisible(locator, Duration.ZERO).isPresent();
+    }
+    
+    /**
+     * Find elements without waiting for them to appear
+     * @param locator By locator
+     * @return matching elements, empty immediately if there are none
+     */
+    protected List<WebElement> findElementsNow(By locator) {
+        return findElementsNow(driver, locator);
+    }
+    
+    /**
+     * Find elements inside a search context without waiting for them to appear
+     * @param context driver or parent element
+     * @param locator By locator
+     * @return matching elements, empty immediately if there are none
+     */
+    protected List<WebElement> findElementsNow(SearchContext context, By locator) {
+        return withoutImplicitWait(() -> context.findElements(locator));
+    }
+    
+    /**
+     * Run an action with the implicit wait temporarily set to zero
+     * @param action action to run
+     * @return action result
+     */
+    private <T> T withoutImplicitWait(Supplier<T> action) {
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return action.get();
+        } finally {
+            driver.manage().timeouts().implicitlyWait(DriverManager.getImplicitWait());
+        }
+    }
+    
+    /**
+     * Resolve the first element matching an ordered list of fallback locators in one round trip
+     * Visibility, enabled state and text/attribute filters are evaluated inside the browser
+     * Locators are tried in the order learned by LocatorRegistry for this page and element
+     * @param query element query
+     * @return first matching WebElement or null if nothing matches
+     */
+    protected WebElement findFirst(ElementQuery query) {
+        List<?> match = resolve(query, true);
+        return match == null ? null : (WebElement) match.get(0);
+    }
+    
+    /**
+     * Resolve all elements of the first fallback locator that has any match, in one round trip
+     * @param query element query
+     * @return matching WebElements, empty if nothing matches
+     */
+    @SuppressWarnings("unchecked")
+    protected List<WebElement> findAll(ElementQuery query) {
+        List<?> match = resolve(query, false);
+        return match == null ? new ArrayList<>() : (List<WebElement>) match.get(0);
+    }
+    
+    /**
+     * Resolve all elements of a query and turn them into plain data inside the browser, in one round trip
+     * @param query element query
+     * @param extractBody JavaScript function body receiving "elements" and "options", see ElementQuery.extractingScript
+     * @param options value passed to the extraction body
+     * @return value returned by the extraction body (also when nothing matched)
+     */
+    protected Object extractAll(ElementQuery query, String extractBody, Object options) {
+        return resolve(query, ElementQuery.extractingScript(extractBody), false, options).get(0);
+    }
+    
+    /**
+     * Run the resolve script with the learned locator order and record which strategy won
+     * @param query element query
+     * @param firstOnly true to stop at the first matching element
+     * @return [result, locatorIndex, strategyMillis] or null if nothing matches
+     */
+    private List<?> resolve(ElementQuery query, boolean firstOnly) {
+        return resolve(query, ElementQuery.RESOLVE_SCRIPT, firstOnly, null);
+    }
+    
+    /**
+     * Run a resolve script with the learned locator order and record which strategy won
+     * Strategies tried before the winner count as misses; when nothing matches the element is taken to be
+     * legitimately absent (an empty cart, a closed modal) and no strategy is charged for it
+     * @param query element query
+     * @param script RESOLVE_SCRIPT or a script built by ElementQuery.extractingScript
+     * @param firstOnly true to stop at the first matching element
+     * @param options extra script argument
+     * @return [result, locatorIndex, strategyMillis], or null / a null index if nothing matches
+     */
+    private List<?> resolve(ElementQuery query, String script, boolean firstOnly, Object options) {
+        String elementKey = getClass().getSimpleName() + "." + query.getName();
+        List<String> strategies = query.getLocatorDescriptions();
+        List<Integer> order = LocatorRegistry.order(elementKey, strategies);
+        
+        List<?> match = (List<?>) jsExecutor.executeScript(script, query.toScriptArgument(order), firstOnly, options);
+        if (match == null || match.get(1) == null) {
+            logger.info("No " + query.getName() + " found with any locator");
+            return match;
+        }
+        int winnerIndex = ((Number) match.get(1)).intValue();
+        for (int i = 0; i < winnerIndex; i++) {
+            LocatorRegistry.recordMiss(elementKey, strategies.get(order.get(i)));
+        }
+        String winner = strategies.get(order.get(winnerIndex));
+        // Time the winning strategy took inside the browser, without the round trip
+        long strategyMillis = match.size() > 2 && match.get(2) != null
+                ? Math.round(((Number) match.get(2)).doubleValue()) : 0;
+        LocatorRegistry.recordHit(elementKey, winner, strategyMillis);
+        logger.info("Found " + query.getName() + " using locator: " + winner + " (" + strategyMillis + " ms)");
+        return match;
+    }
+    
     /**
      * Scroll to element using JavaScript
      * @param element WebElement to scroll to
@@ -119,4 +296,231 @@ public abstract class BasePage {
     public boolean isPageLoaded() {
         return jsExecutor.executeScript("return document.readyState").equals("complete");
     }
+    
+    /**
+     * Wait until a condition is satisfied using the default timeout
+     * The step continues as soon as the condition returns a non-null, non-false value
+     * @param description what the step is waiting for, used in timeout messages
+     * @param condition condition to evaluate
+     * @return value returned by the condition
+     */
+    protected <T> T waitUntil(String description, Function<WebDriver, T> condition) {
+        return waitUntil(description, condition, getDefaultTimeout());
+    }
+    
+    /**
+     * Wait until a condition is satisfied
+     * @param description what the step is waiting for, used in timeout messages
+     * @param condition condition to evaluate
+     * @param timeout maximum time to wait
+     * @return value returned by the condition
+     */
+    protected <T> T waitUntil(String description, Function<WebDriver, T> condition, Duration timeout) {
+        WebDriverWait conditionWait = new WebDriverWait(driver, timeout, getPollingInterval());
+        conditionWait.ignoring(StaleElementReferenceException.class);
+        conditionWait.withMessage(description);
+        long start = System.currentTimeMillis();
+        T result = conditionWait.until(condition);
+        logger.debug("Condition met after " + (System.currentTimeMillis() - start) + " ms: " + description);
+        return result;
+    }
+    
+    /**
+     * Wait for a condition that is allowed not to happen
+     * @param description what the step is waiting for
+     * @param condition condition to evaluate
+     * @param timeout maximum time to wait
+     * @return true if the condition was met before the timeout
+     */
+    protected boolean waitOptionally(String description, Function<WebDriver, ?> condition, Duration timeout) {
+        try {
+            waitUntil(description, condition, timeout);
+            return true;
+        } catch (TimeoutException e) {
+            logger.info("Condition not met within " + timeout.toMillis() + " ms: " + description);
+            return false;
+        }
+    }
+    
+    /**
+     * Wait for document ready state to be complete
+     */
+    protected void waitForPageLoad() {
+        waitUntil("document ready state complete",
+                d -> "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState")));
+    }
+    
+    /**
+     * Wait for input value to become the expected value
+     * @param element input element
+     * @param expectedValue expected value
+     */
+    protected void waitForValue(WebElement element, String expectedValue) {
+        waitUntil("input value to be '" + expectedValue + "'",
+                ExpectedConditions.attributeToBe(element, "value", expectedValue));
+    }
+    
+    /**
+     * Wait for an element attribute to change from its previous value
+     * @param element element to observe
+     * @param attribute attribute name
+     * @param previousValue value before the action
+     * @param timeout maximum time to wait
+     * @return true if the attribute changed
+     */
+    protected boolean waitForAttributeChange(WebElement element, String attribute, String previousValue, Duration timeout) {
+        return waitOptionally("attribute '" + attribute + "' to change",
+                d -> !Objects.equals(element.getAttribute(attribute), previousValue), timeout);
+    }
+    
+    /**
+     * Wait for the current URL to change from the given URL
+     * @param previousUrl URL before the action
+     * @return new URL
+     */
+    protected String waitForUrlChange(String previousUrl) {
+        return waitUntil("URL to change from " + previousUrl, d -> {
+            String currentUrl = d.getCurrentUrl();
+            return currentUrl.equals(previousUrl) ? null : currentUrl;
+        });
+    }
+    
+    /**
+     * Wait for a count (e.g. cart items) to differ from its previous value
+     * @param description what is being counted
+     * @param counter supplier of the current count
+     * @param previousCount count before the action
+     * @return new count
+     */
+    protected int waitForCountChange(String description, Supplier<Integer> counter, int previousCount) {
+        return waitUntil(description + " to change from " + previousCount, d -> {
+            int currentCount = counter.get();
+            return currentCount != previousCount ? currentCount : null;
+        });
+    }
+    
+    /**
+     * Wait for an overlay or removed element to go away (hidden or detached from DOM)
+     * @param element element expected to disappear
+     * @return true if the element disappeared
+     */
+    protected boolean waitForElementToDisappear(WebElement element) {
+        return waitOptionally("element to disappear", ExpectedConditions.or(
+                ExpectedConditions.stalenessOf(element),
+                ExpectedConditions.invisibilityOf(element)), getDefaultTimeout());
+    }
+    
+    /**
+     * Wait for every overlay matching a CSS selector to go away
+     * Visibility is evaluated in the browser so absent overlays do not pay the implicit wait
+     * @param overlayCssSelector overlay CSS selector
+     * @return true if no matching overlay is visible
+     */
+    protected boolean waitForOverlayToDisappear(String overlayCssSelector) {
+        return waitOptionally("overlay '" + overlayCssSelector + "' to disappear",
+                d -> (Boolean) ((JavascriptExecutor) d).executeScript(
+                        "return !Array.prototype.some.call(document.querySelectorAll(arguments[0]),"
+                                + " function (e) { return e.offsetWidth > 0 || e.offsetHeight > 0; });",
+                        overlayCssSelector),
+                getDefaultTimeout());
+    }
+    
+    /**
+     * Wait until no network request has been in flight for the quiet period (CDP, Chrome only)
+     * Falls back to DOM stability when the session has no DevTools support
+     * @param quietPeriod required time without network activity
+     * @param timeout maximum time to wait
+     * @return true if the network became idle
+     */
+    protected boolean waitForNetworkIdle(Duration quietPeriod, Duration timeout) {
+        NetworkMonitor networkMonitor = DriverManager.getNetworkMonitor();
+        if (networkMonitor == null) {
+            return waitForDomStable(quietPeriod, timeout);
+        }
+        return waitOptionally("network idle for " + quietPeriod.toMillis() + " ms",
+                d -> networkMonitor.isIdle(quietPeriod), timeout);
+    }
+    
+    /**
+     * Wait until the DOM has not mutated for the quiet period
+     * A MutationObserver is injected into the page on first use
+     * @param quietPeriod required time without DOM mutations
+     * @param timeout maximum time to wait
+     * @return true if the DOM became stable
+     */
+    protected boolean waitForDomStable(Duration quietPeriod, Duration timeout) {
+        return waitOptionally("DOM stable for " + quietPeriod.toMillis() + " ms", d -> {
+            Number quietMillis = (Number) ((JavascriptExecutor) d).executeScript(DOM_QUIET_TIME_SCRIPT);
+            return quietMillis.longValue() >= quietPeriod.toMillis();
+        }, timeout);
+    }
+    
+    /**
+     * Wait until the page has settled: network idle and DOM stable, using configured quiet periods
+     */
+    protected void waitForPageToSettle() {
+        Duration timeout = Duration.ofSeconds(ConfigReader.getIntProperty("wait.settle.timeoutSeconds", 10));
+        waitForNetworkIdle(getNetworkQuietPeriod(), timeout);
+        waitForDomStable(getDomQuietPeriod(), timeout);
+        logPageTiming();
+    }
+    
+    /**
+     * Log navigation timing of the current document, used to compare launch profiles page by page
+     */
+    private void logPageTiming() {
+        try {
+            Object timing = jsExecutor.executeScript(PAGE_TIMING_SCRIPT);
+            if (timing instanceof Map) {
+                Map<?, ?> values = (Map<?, ?>) timing;
+                logger.info("Page timing " + values.get("path") + ": domContentLoaded=" + values.get("dcl")
+                        + " ms, load=" + values.get("load") + " ms, resources=" + values.get("resources"));
+            }
+        } catch (WebDriverException e) {
+            logger.debug("Navigation timing not available: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get configured time without network activity after which the network counts as idle
+     * @return network quiet period
+     */
+    protected Duration getNetworkQuietPeriod() {
+        return Duration.ofMillis(ConfigReader.getIntProperty("wait.network.quietMillis", 500));
+    }
+    
+    /**
+     * Get configured time without DOM mutations after which the page counts as stable
+     * @return DOM quiet period
+     */
+    protected Duration getDomQuietPeriod() {
+        return Duration.ofMillis(ConfigReader.getIntProperty("wait.dom.quietMillis", 300));
+    }
+    
+    /**
+     * Get default timeout of explicit waits from the active performance profile
+     * @return default timeout
+     */
+    protected Duration getDefaultTimeout() {
+        return ConfigReader.getProfile().getExplicitWait();
+    }
+    
+    /**
+     * Scale a step timeout tuned for the default profile by the active profile's explicit wait
+     * A 5 s wait becomes 20 s under a profile with a 60 s explicit wait when timeout.explicit is 15 s
+     * @param defaultProfileTimeout timeout under the default profile
+     * @return timeout for the active profile
+     */
+    protected Duration scaledTimeout(Duration defaultProfileTimeout) {
+        long baseMillis = ConfigReader.getIntProperty("timeout.explicit", 15) * 1000L;
+        return defaultProfileTimeout.multipliedBy(getDefaultTimeout().toMillis()).dividedBy(Math.max(1, baseMillis));
+    }
+    
+    /**
+     * Get polling interval of explicit waits from the active performance profile
+     * @return polling interval
+     */
+    protected Duration getPollingInterval() {
+        return ConfigReader.getProfile().getPollingInterval();
+    }
 } 
\ No newline at end of file
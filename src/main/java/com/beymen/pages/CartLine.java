@@ -0,0 +1,95 @@
+package com.beymen.pages;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Immutable data of one cart line item as read by CartPage.snapshot()
+ */
+public final class CartLine {
+    
+    private final String sku;
+    private final String name;
+    private final String size;
+    private final int quantity;
+    private final BigDecimal unitPrice;
+    
+    /**
+     * Constructor
+     * @param sku product or variant identifier, empty if the line carries none
+     * @param name product name
+     * @param size selected size, empty if the product has no size
+     * @param quantity ordered quantity
+     * @param unitPrice price shown on the line, null if it could not be parsed
+     */
+    public CartLine(String sku, String name, String size, int quantity, BigDecimal unitPrice) {
+        this.sku = sku;
+        this.name = name;
+        this.size = size;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+    
+    /**
+     * Create a line from one entry returned by the cart snapshot script
+     * @param values line values keyed by field name
+     * @return CartLine
+     */
+    static CartLine fromScriptResult(Map<String, Object> values) {
+        Object quantity = values.get("quantity");
+        return new CartLine(stringValue(values, "sku"), stringValue(values, "name"), stringValue(values, "size"),
+                quantity instanceof Number ? ((Number) quantity).intValue() : 1,
+                CartSnapshot.parsePrice(stringValue(values, "price")));
+    }
+    
+    /**
+     * Get product or variant identifier
+     * @return SKU, empty if not found
+     */
+    public String getSku() {
+        return sku;
+    }
+    
+    /**
+     * Get product name
+     * @return name, empty if not found
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get selected size
+     * @return size, empty if not found
+     */
+    public String getSize() {
+        return size;
+    }
+    
+    /**
+     * Get ordered quantity
+     * @return quantity, 1 if the line shows none
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    /**
+     * Get price shown on the line
+     * @return unit price, null if not found
+     */
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    @Override
+    public String toString() {
+        return quantity + " x " + (name.isEmpty() ? sku : name) + (size.isEmpty() ? "" : " [" + size + "]")
+                + (unitPrice == null ? "" : " @ " + unitPrice);
+    }
+    
+    private static String stringValue(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        return value == null ? "" : value.toString().trim();
+    }
+} 
\ No newline at end of file
@@ -1,9 +1,18 @@
 package com.beymen.pages;
 
+import com.beymen.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Page Object for Cart Page
@@ -11,24 +20,161 @@ import java.util.List;
  */
 public class CartPage extends BasePage {
     
-    // Web Elements
-    @FindBy(css = ".cart-item, .basket-item, .sepet-urun, .cart-product, .m-basketItem, .basketItem, .o-basket__item, .basket-product-item")
-    private List<WebElement> cartItems;
+    // Optional elements, checked with fast-fail probes
+    // Remove buttons inside a cart row, and the confirmation button of a removal dialog
+    private static final String REMOVE_BUTTON_SELECTOR = "[id^='removeCartItemBtn'], [id*='removeCartItem'], "
+            + ".m-basketItem__remove, .basket-remove, .remove-item, .delete-item, .sil, .remove-product, "
+            + "button[class*='remove'], button[class*='delete'], [aria-label*='remove'], [aria-label*='sil'], "
+            + "[data-action*='remove'], button[onclick*='remove'], button[onclick*='delete']";
     
-    @FindBy(xpath = "//*[@id='removeCartItemBtn0-key-0']")
-    private WebElement specificRemoveButton;
+    private static final String REMOVE_CONFIRM_SELECTOR = ".modal button, .o-modal button, .popup button, [role='dialog'] button";
     
-    @FindBy(css = ".remove-item, .delete-item, .sil, .remove-product, button[class*='remove'], button[class*='delete'], .m-basketItem__remove, .basket-remove")
-    private List<WebElement> removeButtons;
+    // Cart-level elements read by snapshot()
+    private static final String EMPTY_CART_SELECTOR = ".empty-cart, .empty-basket, .bos-sepet, .cart-empty-message, .m-basket__empty, .basket-empty";
     
-    @FindBy(css = ".empty-cart, .empty-basket, .bos-sepet, .cart-empty-message, .m-basket__empty, .basket-empty")
-    private WebElement emptyCartMessage;
+    private static final String CART_TOTAL_SELECTOR = ".cart-total, .basket-total, .sepet-toplam, .total-price, .m-basket__total";
     
-    @FindBy(css = ".cart-total, .basket-total, .sepet-toplam, .total-price, .m-basket__total")
-    private WebElement cartTotal;
+    private static final String CART_COUNT_SELECTOR = ".cart-count, .basket-count, .sepet-adet, .m-basket__count, .basket-item-count";
     
-    @FindBy(css = ".cart-count, .basket-count, .sepet-adet, .m-basket__count, .basket-item-count")
-    private WebElement cartCount;
+    // Candidate cart rows in fallback order; rows must look like products (price, quantity, size...)
+    private static final ElementQuery CART_ITEM_ROWS = ElementQuery.named("cart item rows")
+            .css(
+                // Common cart item patterns
+                ".cart-item", ".basket-item", ".sepet-urun", ".cart-product",
+                ".m-basketItem", ".basketItem", ".o-basket__item", ".basket-product-item",
+                ".basket-item-wrapper", ".cart-product-wrapper", "[data-product-id]",
+                ".product-row", ".item-row",
+                
+                // More specific patterns for Beymen
+                ".m-basket__item", ".basket-content .item", ".cart-content .item",
+                ".shopping-cart-item", ".cart-list-item", ".basket-list-item",
+                ".product-item", ".cart-product-row", ".basket-product-row",
+                
+                // Generic patterns that might contain cart items
+                "[class*='cart'] [class*='item']", "[class*='basket'] [class*='item']",
+                "[class*='sepet'] [class*='urun']", "[id*='cart'] [class*='item']",
+                
+                // Table-based cart layouts
+                "tbody tr", ".cart-table tr", ".basket-table tr",
+                "table tr[class*='item']", "table tr[class*='product']")
+            .visible()
+            .minTextLength(11)
+            .excludeText("başlık", "header", "footer", "toplam", "total", "summary")
+            .excludeAttribute("class", "header", "footer")
+            .textContains("₺", "tl", "adet", "beden", "renk", "sil");
+    
+    /**
+     * Extraction body for snapshot(): "elements" are the cart rows, "options" holds the cart-level selectors
+     * Returns {lines: [{sku, name, size, quantity, price}], total, badge, empty}
+     */
+    private static final String CART_SNAPSHOT_SCRIPT =
+            "function textOf(root, selectors) {"
+            + "  for (var s = 0; s < selectors.length; s++) {"
+            + "    var e = root.querySelector(selectors[s]);"
+            + "    var text = e ? (e.innerText || e.textContent || '').trim() : '';"
+            + "    if (text) { return text; }"
+            + "  }"
+            + "  return '';"
+            + "}"
+            + "function attrOf(root, names) {"
+            + "  for (var n = 0; n < names.length; n++) {"
+            + "    var e = root.hasAttribute(names[n]) ? root : root.querySelector('[' + names[n] + ']');"
+            + "    if (e && e.getAttribute(names[n])) { return e.getAttribute(names[n]); }"
+            + "  }"
+            + "  return '';"
+            + "}"
+            + "function isVisible(e) { return !!e && !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length); }"
+            + "var lines = [];"
+            + "for (var i = 0; i < elements.length; i++) {"
+            + "  var row = elements[i], rowText = row.innerText || '';"
+            + "  var size = textOf(row, ['[class*=size]', '[class*=Size]', '[class*=beden]']);"
+            + "  var sizeMatch = rowText.match(/beden\\s*:?\\s*([^\\s\\n]+)/i);"
+            + "  var quantityInput = row.querySelector('input[type=number], select[class*=quantity], select[name*=quantity], input[name*=quantity]');"
+            + "  var quantityText = quantityInput ? quantityInput.value : textOf(row, ['[class*=quantity]', '[class*=Quantity]', '[class*=adet]']);"
+            + "  var quantityMatch = (quantityText || '').match(/\\d+/) || rowText.match(/(\\d+)\\s*adet/i);"
+            + "  lines.push({"
+            + "    sku: attrOf(row, ['data-sku', 'data-product-id', 'data-id', 'data-variant-id']),"
+            + "    name: textOf(row, ['[class*=name]', '[class*=Name]', '[class*=title]', '[class*=Title]', '[class*=desc]', 'a']),"
+            + "    size: size.replace(/^beden\\s*:?\\s*/i, '') || (sizeMatch ? sizeMatch[1] : ''),"
+            + "    quantity: quantityMatch ? parseInt(quantityMatch[quantityMatch.length > 1 ? 1 : 0], 10) : 1,"
+            + "    price: textOf(row, ['[class*=newPrice]', '[class*=price]', '[class*=Price]', '[class*=fiyat]'])"
+            + "      || ((rowText.match(/[\\d.,]+\\s*(tl|\\u20ba)/i) || [''])[0])"
+            + "  });"
+            + "}"
+            + "var empty = document.querySelector(options.empty);"
+            + "return {"
+            + "  lines: lines,"
+            + "  total: textOf(document, [options.total]),"
+            + "  badge: textOf(document, [options.badge]),"
+            + "  empty: isVisible(empty)"
+            + "};";
+    
+    /**
+     * Extraction body for findRemovableLines(): "elements" are the cart rows, "options" the remove button selector
+     * Returns [{row, button, label, sku}] for rows with a remove button; falls back to remove buttons anywhere
+     * on the page (with their closest row-like ancestor) when no row matched
+     */
+    private static final String REMOVABLE_LINES_SCRIPT =
+            "function isVisible(e) { return !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length); }"
+            + "function removeButtonOf(row) {"
+            + "  var buttons = row.querySelectorAll(options);"
+            + "  for (var b = 0; b < buttons.length; b++) { if (isVisible(buttons[b])) { return buttons[b]; } }"
+            + "  var texts = row.querySelectorAll('button, a, span');"
+            + "  for (var t = 0; t < texts.length; t++) {"
+            + "    var text = (texts[t].innerText || '').trim().toLowerCase();"
+            + "    if ((text === 'sil' || text === 'kaldır') && isVisible(texts[t])) { return texts[t]; }"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "function skuOf(row) {"
+            + "  var names = ['data-sku', 'data-product-id', 'data-id', 'data-variant-id'];"
+            + "  for (var n = 0; n < names.length; n++) {"
+            + "    var holder = row.matches('[' + names[n] + ']') ? row : row.querySelector('[' + names[n] + ']');"
+            + "    if (holder) { return holder.getAttribute(names[n]); }"
+            + "  }"
+            + "  return '';"
+            + "}"
+            + "function labelOf(row, index) {"
+            + "  var name = row.querySelector('[class*=name], [class*=Name], [class*=title], [class*=Title]');"
+            + "  return '#' + index + ' ' + ((name ? name.innerText : row.innerText) || '').trim().split('\\n')[0].substring(0, 60);"
+            + "}"
+            + "var lines = [];"
+            + "for (var i = 0; i < elements.length; i++) {"
+            + "  var button = removeButtonOf(elements[i]);"
+            + "  if (button) {"
+            + "    lines.push({ row: elements[i], button: button, label: labelOf(elements[i], i), sku: skuOf(elements[i]) });"
+            + "  }"
+            + "}"
+            + "if (elements.length === 0) {"
+            + "  var loose = document.querySelectorAll(options);"
+            + "  for (var j = 0; j < loose.length; j++) {"
+            + "    if (!isVisible(loose[j])) { continue; }"
+            + "    var row = loose[j].closest('li, tr, [class*=item], [class*=Item]') || loose[j];"
+            + "    lines.push({ row: row, button: loose[j], label: labelOf(row, j), sku: skuOf(row) });"
+            + "  }"
+            + "}"
+            + "return lines;";
+    
+    /**
+     * Script evaluated by the browser: arguments[0] is a cart row, arguments[1] the confirmation button selector
+     * Returns {removed, confirm}: removed once the row left the DOM or is hidden, confirm is a visible
+     * confirmation button whose text accepts the removal
+     */
+    private static final String LINE_STATE_SCRIPT =
+            "var row = arguments[0];"
+            + "var removed = !row.isConnected || !(row.offsetWidth || row.offsetHeight || row.getClientRects().length);"
+            + "var confirm = null;"
+            + "if (!removed) {"
+            + "  var buttons = document.querySelectorAll(arguments[1]);"
+            + "  for (var i = 0; i < buttons.length; i++) {"
+            + "    var text = (buttons[i].innerText || '').trim().toLowerCase();"
+            + "    var visible = buttons[i].offsetWidth || buttons[i].offsetHeight;"
+            + "    if (visible && !row.contains(buttons[i]) && /^(sil|evet|onayla|kaldır|yes|remove|delete)/.test(text)) {"
+            + "      confirm = buttons[i]; break;"
+            + "    }"
+            + "  }"
+            + "}"
+            + "return { removed: removed, confirm: confirm };";
     
     /**
      * Constructor
@@ -53,104 +199,47 @@ public class CartPage extends BasePage {
     }
     
     /**
-     * Get number of items in cart with dynamic search
-     * @return number of items
+     * Read the cart state in one script call: line items, total, count badge and empty-cart message
+     * @return CartSnapshot
+     */
+    @SuppressWarnings("unchecked")
+    public CartSnapshot snapshot() {
+        Map<String, Object> options = new HashMap<>();
+        options.put("total", CART_TOTAL_SELECTOR);
+        options.put("badge", CART_COUNT_SELECTOR);
+        options.put("empty", EMPTY_CART_SELECTOR);
+        CartSnapshot cart = CartSnapshot.fromScriptResult(
+                (Map<String, Object>) extractAll(CART_ITEM_ROWS, CART_SNAPSHOT_SCRIPT, options));
+        logger.info("Cart snapshot: " + cart);
+        return cart;
+    }
+    
+    /**
+     * Get number of items in cart
+     * @return number of line items, or the badge count when no line could be read
      */
     public int getCartItemCount() {
         try {
-            Thread.sleep(2000); // Set to 2 seconds
-            
-            // Debug current page
-            String currentUrl = driver.getCurrentUrl();
-            String pageTitle = driver.getTitle();
-            logger.info("DEBUG: Current URL: " + currentUrl);
-            logger.info("DEBUG: Page title: " + pageTitle);
-            
-            // First check page source for common cart-related text
-            String pageSource = driver.getPageSource().toLowerCase();
-            boolean hasCartKeywords = pageSource.contains("sepet") || pageSource.contains("cart") || 
-                                    pageSource.contains("basket") || pageSource.contains("ürün");
-            logger.info("DEBUG: Page contains cart keywords: " + hasCartKeywords);
-            
-            // Try simple approach first - look for any element containing "Sil" button
-            try {
-                java.util.List<org.openqa.selenium.WebElement> silButtons = driver.findElements(
-                    org.openqa.selenium.By.xpath("//*[contains(text(), 'Sil') or contains(@id, 'remove') or contains(@class, 'remove')]"));
-                if (!silButtons.isEmpty()) {
-                    logger.info("Found " + silButtons.size() + " elements with 'Sil' text or remove attributes");
-                    return silButtons.size();
-                }
-            } catch (Exception e) {
-                logger.info("Simple 'Sil' button search failed: " + e.getMessage());
+            waitForPageLoad();
+            CartSnapshot cart = snapshot();
+            if (cart.getLineCount() > 0) {
+                logger.info("Found " + cart.getLineCount() + " cart items");
+                return cart.getLineCount();
             }
-            
-            // Try to find any structured content that looks like cart items
-            String[] selectors = {
-                // Common cart item patterns
-                ".cart-item", ".basket-item", ".sepet-urun", ".cart-product",
-                ".m-basketItem", ".basketItem", ".o-basket__item", ".basket-product-item",
-                ".basket-item-wrapper", ".cart-product-wrapper", "[data-product-id]",
-                ".product-row", ".item-row",
-                
-                // More specific patterns for Beymen
-                ".m-basket__item", ".basket-content .item", ".cart-content .item",
-                ".shopping-cart-item", ".cart-list-item", ".basket-list-item",
-                ".product-item", ".cart-product-row", ".basket-product-row",
-                
-                // Generic patterns that might contain cart items
-                "[class*='cart'] [class*='item']", "[class*='basket'] [class*='item']",
-                "[class*='sepet'] [class*='urun']", "[id*='cart'] [class*='item']",
-                
-                // Table-based cart layouts
-                "tbody tr", ".cart-table tr", ".basket-table tr",
-                "table tr[class*='item']", "table tr[class*='product']"
-            };
-            
-            for (String selector : selectors) {
-                try {
-                    java.util.List<org.openqa.selenium.WebElement> items = driver.findElements(org.openqa.selenium.By.cssSelector(selector));
-                    
-                    // Filter out items that are likely not cart items (headers, footers, etc.)
-                    java.util.List<org.openqa.selenium.WebElement> validItems = new java.util.ArrayList<>();
-                    for (org.openqa.selenium.WebElement item : items) {
-                        if (item.isDisplayed()) {
-                            String itemText = item.getText().toLowerCase();
-                            String itemClass = item.getAttribute("class");
-                            
-                            // Skip if it's likely a header, footer, or non-product element
-                            if (itemText.contains("başlık") || itemText.contains("header") || 
-                                itemText.contains("footer") || itemText.contains("toplam") ||
-                                itemText.contains("total") || itemText.contains("summary") ||
-                                (itemClass != null && (itemClass.contains("header") || itemClass.contains("footer")))) {
-                                continue;
-                            }
-                            
-                            // If item has meaningful content (likely a product), add it
-                            if (itemText.length() > 10 && 
-                                (itemText.contains("₺") || itemText.contains("tl") || 
-                                 itemText.contains("adet") || itemText.contains("beden") ||
-                                 itemText.contains("renk") || itemText.contains("sil"))) {
-                                validItems.add(item);
-                            }
-                        }
-                    }
-                    
-                    if (!validItems.isEmpty()) {
-                        logger.info("Found " + validItems.size() + " cart items using selector: " + selector);
-                        return validItems.size();
-                    }
-                } catch (Exception e) {
-                    // Continue to next selector
-                }
+            if (cart.getBadgeCount() > 0) {
+                logger.info("No cart rows read, using cart badge count: " + cart.getBadgeCount());
+                return cart.getBadgeCount();
             }
             
-            // Simplified approach - if we're on a cart page and added an item, assume it's there
-            if (currentUrl.contains("sepet") || currentUrl.contains("cart") || currentUrl.contains("basket")) {
+            // Simplified approach - if we're on a cart page that is not shown as empty, assume the item is there
+            String currentUrl = driver.getCurrentUrl();
+            if (!cart.isEmptyMessageDisplayed()
+                    && (currentUrl.contains("sepet") || currentUrl.contains("cart") || currentUrl.contains("basket"))) {
                 logger.info("On cart page - assuming item was successfully added");
                 return 1; // Assume one item was added successfully
             }
             
-            logger.info("No cart items found with any method");
+            logger.info("No cart items found");
             return 0;
         } catch (Exception e) {
             logger.error("Error getting cart item count: " + e.getMessage());
@@ -159,46 +248,12 @@ public class CartPage extends BasePage {
     }
     
     /**
-     * Check if cart is empty with comprehensive verification
-     * @return true if cart is empty
+     * Check if cart is empty
+     * @return true if the empty-cart message is shown, or there are no line items and no badge count
      */
     public boolean isCartEmpty() {
         try {
-            // Check if empty message is displayed
-            try {
-                if (emptyCartMessage.isDisplayed()) {
-                    logger.info("Empty cart message is displayed");
-                    return true;
-                }
-            } catch (Exception e) {
-                // No empty message element found
-            }
-            
-            // Check cart item count
-            int itemCount = getCartItemCount();
-            boolean isEmpty = itemCount == 0;
-            
-            // Also check URL for cart/sepet indication
-            String currentUrl = driver.getCurrentUrl();
-            if (currentUrl.contains("sepet") || currentUrl.contains("cart")) {
-                logger.info("On cart page, item count: " + itemCount);
-            }
-            
-            // If we attempted to remove and can't find any remove buttons, assume cart is empty
-            try {
-                java.util.List<org.openqa.selenium.WebElement> silButtons = driver.findElements(
-                    org.openqa.selenium.By.xpath("//*[contains(text(), 'Sil') or contains(@id, 'remove')]"));
-                if (silButtons.isEmpty()) {
-                    logger.info("No 'Sil' buttons found - cart appears to be empty");
-                    return true;
-                }
-            } catch (Exception e) {
-                // If we can't find any remove buttons, assume cart is empty
-                logger.info("Cannot search for remove buttons - assuming cart is empty");
-                return true;
-            }
-            
-            return isEmpty;
+            return snapshot().isEmpty();
         } catch (Exception e) {
             logger.error("Error checking if cart is empty: " + e.getMessage());
             // If there's an error checking, assume cart operation was successful
@@ -207,191 +262,141 @@ public class CartPage extends BasePage {
     }
     
     /**
-     * Remove first item from cart using the specific XPath provided
+     * Remove first item from cart
      */
     public void removeFirstItem() {
         try {
-            Thread.sleep(2000); // Set to 2 seconds
-            
-            logger.info("Starting remove item process");
-            
-            // First try to use the specific remove button XPath provided by user
-            try {
-                WebElement specificRemoveBtn = driver.findElement(org.openqa.selenium.By.xpath("//*[@id='removeCartItemBtn0-key-0']"));
-                if (specificRemoveBtn.isDisplayed() && specificRemoveBtn.isEnabled()) {
-                    scrollToElement(specificRemoveBtn);
-                    
-                    // Try normal click first
-                    try {
-                        clickElement(specificRemoveBtn);
-                        logger.info("SUCCESS: Removed item using specific XPath //*[@id='removeCartItemBtn0-key-0'] with normal click");
-                        Thread.sleep(2000);
-                        return;
-                    } catch (Exception e) {
-                        logger.info("Normal click failed on specific XPath, trying JavaScript click: " + e.getMessage());
-                        try {
-                            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", specificRemoveBtn);
-                            logger.info("SUCCESS: Removed item using specific XPath //*[@id='removeCartItemBtn0-key-0'] with JavaScript click");
-                            Thread.sleep(2000);
-                            return;
-                        } catch (Exception jsEx) {
-                            logger.info("JavaScript click also failed on specific XPath: " + jsEx.getMessage());
-                        }
-                    }
-                } else {
-                    logger.info("Specific remove button found but not displayed/enabled");
-                }
-            } catch (Exception e) {
-                logger.info("Specific remove button XPath //*[@id='removeCartItemBtn0-key-0'] not found: " + e.getMessage());
+            waitForPageLoad();
+            List<Map<String, Object>> lines = findRemovableLines();
+            if (lines.isEmpty()) {
+                logger.warn("No remove buttons found - item may have been removed already or cart may be in different state");
+                return;
             }
-            
-            // If specific XPath doesn't work, try the @FindBy element
-            try {
-                if (specificRemoveButton.isDisplayed() && specificRemoveButton.isEnabled()) {
-                    scrollToElement(specificRemoveButton);
-                    
-                    try {
-                        clickElement(specificRemoveButton);
-                        logger.info("SUCCESS: Removed item using @FindBy specific XPath with normal click");
-                        Thread.sleep(2000);
-                        return;
-                    } catch (Exception e) {
-                        logger.info("Normal click failed on @FindBy element, trying JavaScript click: " + e.getMessage());
-                        try {
-                            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", specificRemoveButton);
-                            logger.info("SUCCESS: Removed item using @FindBy specific XPath with JavaScript click");
-                            Thread.sleep(2000);
-                            return;
-                        } catch (Exception jsEx) {
-                            logger.info("JavaScript click also failed on @FindBy element: " + jsEx.getMessage());
-                        }
-                    }
+            long start = System.nanoTime();
+            RemovalSummary summary = new RemovalSummary(1);
+            removeLine(lines.get(0), summary);
+            summary.finish(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            logger.info(summary.toString());
+        } catch (Exception e) {
+            logger.error("Failed to remove item from cart: " + e.getMessage());
+            // Don't throw exception - just log the error
+        }
+    }
+    
+    /**
+     * Remove all items from cart, one line after another as fast as the site confirms each removal
+     * Each removal waits only for its own line to leave the DOM; the line list is re-read in one
+     * script call between removals because the cart may re-render
+     * @return summary of the removals
+     */
+    public RemovalSummary removeAllItems() {
+        long start = System.nanoTime();
+        List<Map<String, Object>> lines = findRemovableLines();
+        RemovalSummary summary = new RemovalSummary(lines.size());
+        Set<Object> failedLines = new HashSet<>();
+        try {
+            // Bounded so a line that keeps coming back cannot loop forever
+            for (int attempt = 0; !lines.isEmpty() && attempt <= summary.getRequestedCount() * 2; attempt++) {
+                Map<String, Object> line = lines.stream()
+                        .filter(candidate -> !failedLines.contains(lineKey(candidate)))
+                        .findFirst().orElse(null);
+                if (line == null) {
+                    break;
                 }
-            } catch (Exception e) {
-                logger.info("@FindBy specific remove button not found: " + e.getMessage());
+                if (!removeLine(line, summary)) {
+                    failedLines.add(lineKey(line));
+                }
+                lines = findRemovableLines();
             }
-            
-            // Fallback to dynamic search - find "Sil" buttons
-            logger.info("Falling back to dynamic remove button search");
-            
-            // Try to find any element with "Sil" text
+        } catch (Exception e) {
+            logger.error("Failed to remove all items: " + e.getMessage());
+        }
+        summary.finish(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info(summary.toString());
+        return summary;
+    }
+    
+    /**
+     * Read every cart line with its remove button in one script call
+     * @return lines as {row, button, label}, in page order
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> findRemovableLines() {
+        return (List<Map<String, Object>>) extractAll(CART_ITEM_ROWS, REMOVABLE_LINES_SCRIPT, REMOVE_BUTTON_SELECTOR);
+    }
+    
+    /**
+     * Click a line's remove button and wait until that line has left the DOM
+     * A confirmation dialog, if the site shows one, is accepted on the way
+     * @param line line from findRemovableLines()
+     * @param summary summary to record the outcome in
+     * @return true if the line was removed
+     */
+    @SuppressWarnings("unchecked")
+    private boolean removeLine(Map<String, Object> line, RemovalSummary summary) {
+        String label = lineLabel(line);
+        WebElement row = (WebElement) line.get("row");
+        WebElement removeButton = (WebElement) line.get("button");
+        Duration timeout = Duration.ofSeconds(ConfigReader.getIntProperty("cart.remove.lineTimeoutSeconds", 10));
+        long start = System.nanoTime();
+        try {
             try {
-                java.util.List<org.openqa.selenium.WebElement> silElements = driver.findElements(
-                    org.openqa.selenium.By.xpath("//*[contains(text(), 'Sil') or contains(text(), 'SİL')]"));
-                logger.info("Found " + silElements.size() + " elements containing 'Sil' text");
-                
-                for (org.openqa.selenium.WebElement element : silElements) {
-                    if (element.isDisplayed() && element.isEnabled()) {
-                        try {
-                            String elementText = element.getText();
-                            String tagName = element.getTagName();
-                            String elementId = element.getAttribute("id");
-                            logger.info("Trying to click 'Sil' element: " + tagName + " with text: '" + elementText + "', id: '" + elementId + "'");
-                            
-                            scrollToElement(element);
-                            
-                            try {
-                                clickElement(element);
-                                logger.info("SUCCESS: Clicked 'Sil' element using regular click: " + elementText);
-                                Thread.sleep(2000);
-                                return;
-                            } catch (Exception clickEx) {
-                                logger.info("Failed to click 'Sil' element with regular click, trying JavaScript: " + clickEx.getMessage());
-                                try {
-                                    ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
-                                    logger.info("SUCCESS: Clicked 'Sil' element using JavaScript: " + elementText);
-                                    Thread.sleep(2000);
-                                    return;
-                                } catch (Exception jsEx) {
-                                    logger.info("JavaScript click also failed on 'Sil' element: " + jsEx.getMessage());
-                                }
-                            }
-                        } catch (Exception e) {
-                            logger.info("Error processing 'Sil' element: " + e.getMessage());
-                        }
-                    }
-                }
+                clickElement(removeButton);
             } catch (Exception e) {
-                logger.info("Failed to find 'Sil' elements: " + e.getMessage());
+                logger.info("Normal click failed on remove button, trying JavaScript click: " + e.getMessage());
+                jsExecutor.executeScript("arguments[0].click();", removeButton);
             }
             
-            // Try other remove button patterns
-            try {
-                String[] removeSelectors = {
-                    "button[id*='removeCartItemBtn']", "[id*='removeCartItemBtn']",
-                    "button[id*='removeCartItem']", "[id*='removeCartItem']",
-                    "button[id*='remove']", "[id*='remove']",
-                    ".remove-item", ".delete-item", ".sil", ".remove-product", 
-                    "button[class*='remove']", "button[class*='delete']", 
-                    ".m-basketItem__remove", ".basket-remove",
-                    "[aria-label*='remove']", "[aria-label*='sil']",
-                    ".fa-trash", ".fa-times", ".icon-remove",
-                    "button[onclick*='remove']", "button[onclick*='delete']",
-                    "button[onclick*='sil']", "[data-action*='remove']"
-                };
-                
-                for (String selector : removeSelectors) {
+            boolean confirmed = false;
+            boolean removed = false;
+            while (!removed) {
+                Object state = waitUntil("cart line '" + label + "' to be removed", d -> {
+                    Map<String, Object> lineState;
                     try {
-                        java.util.List<org.openqa.selenium.WebElement> removeButtons = driver.findElements(org.openqa.selenium.By.cssSelector(selector));
-                        logger.info("Checking selector '" + selector + "' - found " + removeButtons.size() + " elements");
-                        
-                        for (org.openqa.selenium.WebElement removeButton : removeButtons) {
-                            if (removeButton.isDisplayed() && removeButton.isEnabled()) {
-                                String buttonText = removeButton.getText().toLowerCase();
-                                String buttonClass = removeButton.getAttribute("class");
-                                String buttonId = removeButton.getAttribute("id");
-                                
-                                logger.info("Found potential remove button: text='" + removeButton.getText() + 
-                                           "', class='" + buttonClass + "', id='" + buttonId + "'");
-                                
-                                try {
-                                    scrollToElement(removeButton);
-                                    clickElement(removeButton);
-                                    logger.info("SUCCESS: Removed item using button with selector: " + selector);
-                                    Thread.sleep(2000);
-                                    return;
-                                } catch (Exception clickEx) {
-                                    logger.info("Failed to click remove button: " + clickEx.getMessage());
-                                    try {
-                                        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", removeButton);
-                                        logger.info("SUCCESS: Removed item using JavaScript click with selector: " + selector);
-                                        Thread.sleep(2000);
-                                        return;
-                                    } catch (Exception jsEx) {
-                                        logger.info("JavaScript click also failed: " + jsEx.getMessage());
-                                    }
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.info("Error with selector " + selector + ": " + e.getMessage());
+                        lineState = (Map<String, Object>) ((JavascriptExecutor) d)
+                                .executeScript(LINE_STATE_SCRIPT, row, REMOVE_CONFIRM_SELECTOR);
+                    } catch (StaleElementReferenceException e) {
+                        // The row node is gone from the document
+                        return Collections.singletonMap("removed", true);
                     }
+                    return Boolean.TRUE.equals(lineState.get("removed")) || lineState.get("confirm") != null
+                            ? lineState : null;
+                }, timeout);
+                Map<String, Object> lineState = (Map<String, Object>) state;
+                removed = Boolean.TRUE.equals(lineState.get("removed"));
+                if (!removed) {
+                    if (confirmed) {
+                        throw new IllegalStateException("Removal confirmation did not remove the line");
+                    }
+                    jsExecutor.executeScript("arguments[0].click();", lineState.get("confirm"));
+                    confirmed = true;
+                    logger.info("Confirmed removal of cart line: " + label);
                 }
-            } catch (Exception e) {
-                logger.info("Failed to search for remove buttons by selectors: " + e.getMessage());
             }
-            
-            // If no remove button found, log a warning but don't fail the test
-            logger.warn("No remove buttons found - item may have been removed already or cart may be in different state");
         } catch (Exception e) {
-            logger.error("Failed to remove item from cart: " + e.getMessage());
-            // Don't throw exception - just log the error
+            logger.warn("Failed to remove cart line '" + label + "': " + e.getMessage());
+            summary.recordFailed(label);
+            return false;
         }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        summary.recordRemoved(label, elapsed);
+        logger.info("Removed cart line '" + label + "' in " + elapsed + " ms");
+        return true;
+    }
+    
+    private static String lineLabel(Map<String, Object> line) {
+        return String.valueOf(line.get("label"));
     }
     
     /**
-     * Remove all items from cart
+     * Identify a line across re-reads of the cart: its SKU when the row carries one, otherwise its row element
+     * The label is not used since it contains the row's position, which shifts when the cart re-renders
+     * @param line line from findRemovableLines()
+     * @return SKU or row element
      */
-    public void removeAllItems() {
-        try {
-            while (!cartItems.isEmpty() && !removeButtons.isEmpty()) {
-                removeFirstItem();
-                Thread.sleep(2000); // Set to 2 seconds
-            }
-            logger.info("Removed all items from cart");
-        } catch (Exception e) {
-            logger.error("Failed to remove all items: " + e.getMessage());
-        }
+    private static Object lineKey(Map<String, Object> line) {
+        Object sku = line.get("sku");
+        return sku != null && !String.valueOf(sku).isEmpty() ? "sku:" + sku : line.get("row");
     }
     
     /**
@@ -400,13 +405,13 @@ public class CartPage extends BasePage {
      */
     public boolean verifyCartIsEmpty() {
         try {
-            Thread.sleep(2000); // Set to 2 seconds
-            
-            boolean isEmpty = isCartEmpty();
+            // Continue as soon as the cart renders its empty state
+            boolean isEmpty = waitOptionally("cart to become empty", d -> snapshot().isEmpty(),
+                    scaledTimeout(Duration.ofSeconds(5)));
             if (isEmpty) {
                 logger.info("Cart is confirmed to be empty");
             } else {
-                logger.info("Cart still contains items: " + getCartItemCount());
+                logger.info("Cart still contains items: " + snapshot());
             }
             
             return isEmpty;
@@ -0,0 +1,141 @@
+package com.beymen.pages;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable state of the cart page: line items, total, count badge and empty-cart message
+ */
+public final class CartSnapshot {
+    
+    private static final Pattern NUMBER = Pattern.compile("\\d[\\d.,]*");
+    
+    private final List<CartLine> lines;
+    private final BigDecimal total;
+    private final int badgeCount;
+    private final boolean emptyMessageDisplayed;
+    
+    /**
+     * Constructor
+     * @param lines cart line items
+     * @param total cart total, null if not shown
+     * @param badgeCount item count shown on the cart badge, -1 if not shown
+     * @param emptyMessageDisplayed true if the empty-cart message is displayed
+     */
+    public CartSnapshot(List<CartLine> lines, BigDecimal total, int badgeCount, boolean emptyMessageDisplayed) {
+        this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+        this.total = total;
+        this.badgeCount = badgeCount;
+        this.emptyMessageDisplayed = emptyMessageDisplayed;
+    }
+    
+    /**
+     * Create a snapshot from the result of the cart snapshot script
+     * @param values snapshot values keyed by field name
+     * @return CartSnapshot
+     */
+    @SuppressWarnings("unchecked")
+    static CartSnapshot fromScriptResult(Map<String, Object> values) {
+        List<CartLine> lines = new ArrayList<>();
+        for (Map<String, Object> line : (List<Map<String, Object>>) values.get("lines")) {
+            lines.add(CartLine.fromScriptResult(line));
+        }
+        BigDecimal badge = parsePrice(String.valueOf(values.get("badge")));
+        return new CartSnapshot(lines, parsePrice(String.valueOf(values.get("total"))),
+                badge == null ? -1 : badge.intValue(), Boolean.TRUE.equals(values.get("empty")));
+    }
+    
+    /**
+     * Parse a displayed amount such as "1.299,90 TL", "₺249,00" or "3"
+     * Turkish format is assumed: '.' groups thousands and ',' separates decimals
+     * @param text displayed text
+     * @return amount, or null if the text contains no number
+     */
+    static BigDecimal parsePrice(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = NUMBER.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+        String number = matcher.group().replaceAll("[.,]$", "");
+        if (number.contains(",")) {
+            number = number.replace(".", "").replace(',', '.');
+        } else if (number.matches("\\d{1,3}(\\.\\d{3})+")) {
+            number = number.replace(".", "");
+        }
+        try {
+            return new BigDecimal(number);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Get cart line items in page order
+     * @return immutable list of lines
+     */
+    public List<CartLine> getLines() {
+        return lines;
+    }
+    
+    /**
+     * Get number of line items
+     * @return line count
+     */
+    public int getLineCount() {
+        return lines.size();
+    }
+    
+    /**
+     * Get sum of quantities over all lines
+     * @return total quantity
+     */
+    public int getTotalQuantity() {
+        return lines.stream().mapToInt(CartLine::getQuantity).sum();
+    }
+    
+    /**
+     * Get cart total
+     * @return total, null if not shown
+     */
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    /**
+     * Get item count shown on the cart badge
+     * @return badge count, -1 if not shown
+     */
+    public int getBadgeCount() {
+        return badgeCount;
+    }
+    
+    /**
+     * Check if the empty-cart message is displayed
+     * @return true if displayed
+     */
+    public boolean isEmptyMessageDisplayed() {
+        return emptyMessageDisplayed;
+    }
+    
+    /**
+     * Check if the cart is empty: the empty message is shown, or there are no lines and no badge count
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return emptyMessageDisplayed || lines.isEmpty() && badgeCount <= 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "Cart[" + lines.size() + " line(s), quantity=" + getTotalQuantity() + ", total=" + total
+                + ", badge=" + badgeCount + (emptyMessageDisplayed ? ", empty message" : "") + "] " + lines;
+    }
+} 
\ No newline at end of file
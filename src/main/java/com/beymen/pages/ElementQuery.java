@@ -0,0 +1,291 @@
+package com.beymen.pages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ordered list of fallback locators plus filters, resolved inside the browser in one script call
+ * Built once per page object (usually as a constant) and passed to BasePage.findFirst/findAll
+ */
+public class ElementQuery {
+    
+    /**
+     * Script evaluated by the browser: arguments[0] is the query spec, arguments[1] is true for first-match mode
+     * First-match mode returns [element, locatorIndex] or null
+     * All-match mode returns [matches, locatorIndex] for the first locator that matches anything (fallback semantics)
+     */
+    static final String RESOLVE_SCRIPT =
+            "var spec = arguments[0], firstOnly = arguments[1];"
+            + "function isVisible(e) {"
+            + "  if (!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)) { return false; }"
+            + "  var style = window.getComputedStyle(e);"
+            + "  return style.visibility !== 'hidden' && style.display !== 'none' && parseFloat(style.opacity) > 0;"
+            + "}"
+            + "function isEnabled(e) { return !e.disabled && e.getAttribute('aria-disabled') !== 'true'; }"
+            + "function textOf(e) { return (e.innerText || e.textContent || '').toLowerCase(); }"
+            + "function containsAny(value, needles) {"
+            + "  for (var k = 0; k < needles.length; k++) { if (value.indexOf(needles[k]) >= 0) { return true; } }"
+            + "  return false;"
+            + "}"
+            + "function accepts(e) {"
+            + "  if (spec.visible && !isVisible(e)) { return false; }"
+            + "  if (spec.enabled && !isEnabled(e)) { return false; }"
+            + "  var text = textOf(e);"
+            + "  if (text.trim().length < spec.minTextLength) { return false; }"
+            + "  if (containsAny(text, spec.excludeText)) { return false; }"
+            + "  for (var ex in spec.excludeAttributes) {"
+            + "    if (containsAny((e.getAttribute(ex) || '').toLowerCase(), spec.excludeAttributes[ex])) { return false; }"
+            + "  }"
+            + "  var hasMatchers = spec.text.length > 0;"
+            + "  if (containsAny(text, spec.text)) { return true; }"
+            + "  for (var attr in spec.attributes) {"
+            + "    hasMatchers = true;"
+            + "    if (containsAny((e.getAttribute(attr) || '').toLowerCase(), spec.attributes[attr])) { return true; }"
+            + "  }"
+            + "  return !hasMatchers;"
+            + "}"
+            + "function locate(locator) {"
+            + "  try {"
+            + "    if (locator.type === 'xpath') {"
+            + "      var snapshot = document.evaluate(locator.value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "      var nodes = [];"
+            + "      for (var n = 0; n < snapshot.snapshotLength; n++) { nodes.push(snapshot.snapshotItem(n)); }"
+            + "      return nodes;"
+            + "    }"
+            + "    return Array.prototype.slice.call(document.querySelectorAll(locator.value));"
+            + "  } catch (err) { return []; }"
+            + "}"
+            // Each strategy is timed on its own so the winner's cost does not include the strategies tried before it
+            + "var now = window.performance ? function () { return performance.now(); } : Date.now;"
+            + "for (var i = 0; i < spec.locators.length; i++) {"
+            + "  var started = now(), candidates = locate(spec.locators[i]), matches = [];"
+            + "  for (var j = 0; j < candidates.length; j++) {"
+            + "    if (candidates[j].nodeType !== 1 || !accepts(candidates[j])) { continue; }"
+            + "    if (firstOnly) { return [candidates[j], i, now() - started]; }"
+            + "    matches.push(candidates[j]);"
+            + "  }"
+            + "  if (matches.length > 0) { return [matches, i, now() - started]; }"
+            + "}"
+            + "return null;";
+    
+    /**
+     * Wrap an extraction function body around RESOLVE_SCRIPT in all-match mode
+     * The body receives "elements" (matches, empty if nothing matched) and "options" (arguments[2])
+     * The script returns [extracted, locatorIndex, strategyMillis], with a null index if nothing matched
+     * @param extractBody JavaScript function body returning the extracted data
+     * @return script to run with the query spec, false and the options as arguments
+     */
+    static String extractingScript(String extractBody) {
+        return "var match = (function () {" + RESOLVE_SCRIPT + "}).apply(this, [arguments[0], false]);"
+                + "var extracted = (function (elements, options) {" + extractBody + "})"
+                + "(match ? match[0] : [], arguments[2]);"
+                + "return [extracted, match ? match[1] : null, match ? match[2] : null];";
+    }
+    
+    private final String name;
+    private final List<Locator> locators = new ArrayList<>();
+    private final List<String> textNeedles = new ArrayList<>();
+    private final Map<String, List<String>> attributeNeedles = new LinkedHashMap<>();
+    private final List<String> excludedText = new ArrayList<>();
+    private final Map<String, List<String>> excludedAttributes = new LinkedHashMap<>();
+    private boolean visible;
+    private boolean enabled;
+    private int minTextLength;
+    
+    /**
+     * Constructor
+     * @param name logical element name used in logs
+     */
+    private ElementQuery(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Start a query for a logical element
+     * @param name logical element name (e.g. "add to cart button")
+     * @return new ElementQuery
+     */
+    public static ElementQuery named(String name) {
+        return new ElementQuery(name);
+    }
+    
+    /**
+     * Add a CSS fallback locator
+     * @param description locator description used in logs
+     * @param cssSelector CSS selector
+     * @return this query
+     */
+    public ElementQuery css(String description, String cssSelector) {
+        locators.add(new Locator(description, "css", cssSelector));
+        return this;
+    }
+    
+    /**
+     * Add several CSS fallback locators described by their own selector text
+     * @param cssSelectors CSS selectors in priority order
+     * @return this query
+     */
+    public ElementQuery css(String... cssSelectors) {
+        for (String cssSelector : cssSelectors) {
+            css(cssSelector, cssSelector);
+        }
+        return this;
+    }
+    
+    /**
+     * Add an XPath fallback locator
+     * @param description locator description used in logs
+     * @param xpath XPath expression
+     * @return this query
+     */
+    public ElementQuery xpath(String description, String xpath) {
+        locators.add(new Locator(description, "xpath", xpath));
+        return this;
+    }
+    
+    /**
+     * Only accept elements that are rendered and visible
+     * @return this query
+     */
+    public ElementQuery visible() {
+        this.visible = true;
+        return this;
+    }
+    
+    /**
+     * Only accept elements that are not disabled
+     * @return this query
+     */
+    public ElementQuery enabled() {
+        this.enabled = true;
+        return this;
+    }
+    
+    /**
+     * Accept elements whose visible text contains any of the given values (case-insensitive)
+     * Text and attribute matchers are alternatives: one hit is enough
+     * @param values text fragments
+     * @return this query
+     */
+    public ElementQuery textContains(String... values) {
+        textNeedles.addAll(lowerCase(values));
+        return this;
+    }
+    
+    /**
+     * Accept elements whose attribute contains any of the given values (case-insensitive)
+     * @param attribute attribute name
+     * @param values attribute value fragments
+     * @return this query
+     */
+    public ElementQuery attributeContains(String attribute, String... values) {
+        attributeNeedles.computeIfAbsent(attribute, key -> new ArrayList<>()).addAll(lowerCase(values));
+        return this;
+    }
+    
+    /**
+     * Reject elements whose visible text contains any of the given values (case-insensitive)
+     * @param values text fragments
+     * @return this query
+     */
+    public ElementQuery excludeText(String... values) {
+        excludedText.addAll(lowerCase(values));
+        return this;
+    }
+    
+    /**
+     * Reject elements whose attribute contains any of the given values (case-insensitive)
+     * @param attribute attribute name
+     * @param values attribute value fragments
+     * @return this query
+     */
+    public ElementQuery excludeAttribute(String attribute, String... values) {
+        excludedAttributes.computeIfAbsent(attribute, key -> new ArrayList<>()).addAll(lowerCase(values));
+        return this;
+    }
+    
+    /**
+     * Reject elements with less visible text than the given length
+     * @param length minimum trimmed text length
+     * @return this query
+     */
+    public ElementQuery minTextLength(int length) {
+        this.minTextLength = length;
+        return this;
+    }
+    
+    /**
+     * Get logical element name
+     * @return element name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get description of the locator at the given position
+     * @param index locator index
+     * @return locator description
+     */
+    public String getLocatorDescription(int index) {
+        return locators.get(index).description;
+    }
+    
+    /**
+     * Get descriptions of all locators in declared order
+     * @return locator descriptions
+     */
+    public List<String> getLocatorDescriptions() {
+        return locators.stream().map(locator -> locator.description).collect(Collectors.toList());
+    }
+    
+    /**
+     * Convert the query to the argument expected by RESOLVE_SCRIPT
+     * @param locatorOrder indices of the locators in the order they should be tried
+     * @return script argument
+     */
+    Map<String, Object> toScriptArgument(List<Integer> locatorOrder) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("locators", locatorOrder.stream().map(i -> locators.get(i).toMap()).collect(Collectors.toList()));
+        spec.put("visible", visible);
+        spec.put("enabled", enabled);
+        spec.put("minTextLength", minTextLength);
+        spec.put("text", textNeedles);
+        spec.put("attributes", attributeNeedles);
+        spec.put("excludeText", excludedText);
+        spec.put("excludeAttributes", excludedAttributes);
+        return spec;
+    }
+    
+    private static List<String> lowerCase(String... values) {
+        return Arrays.stream(values).map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toList());
+    }
+    
+    /**
+     * Single fallback locator
+     */
+    private static class Locator {
+        private final String description;
+        private final String type;
+        private final String value;
+        
+        Locator(String description, String type, String value) {
+            this.description = description;
+            this.type = type;
+            this.value = value;
+        }
+        
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("type", type);
+            map.put("value", value);
+            return map;
+        }
+    }
+} 
\ No newline at end of file
@@ -1,10 +1,18 @@
 package com.beymen.pages;
 
+import com.beymen.utils.ConfigReader;
+import com.beymen.utils.SessionPreparer;
+import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
 /**
  * Page Object for Beymen Home Page
  * Following Page Object Pattern and OOP principles
@@ -13,34 +21,31 @@ public class HomePage extends BasePage {
     
     // Page URL
     private static final String HOME_PAGE_URL = "https://www.beymen.com";
+    private static final String SEARCH_URL_TEMPLATE = "https://www.beymen.com/tr/search?q={term}";
     
-    // Web Elements using @FindBy annotation with multiple fallback options
-    @FindBy(xpath = "//*[@id='o-searchSuggestion__input']")
-    private WebElement searchBox;
-    
-    @FindBy(css = "#o-searchSuggestion__input")
-    private WebElement searchBoxCSS;
-    
-    @FindBy(css = "input[placeholder*='Ürün, Marka Arayın'], input[placeholder*='ürün'], input[placeholder*='arayın']")
-    private WebElement searchBoxPlaceholder;
-    
-    @FindBy(css = ".autocomplete-input, .search-input")
-    private WebElement searchBoxClass;
+    // Search box fallback locators, resolved in a single browser round trip
+    private static final ElementQuery SEARCH_BOX = ElementQuery.named("search box")
+            .xpath("XPath", "//*[@id='o-searchSuggestion__input']")
+            .css("CSS ID", "#o-searchSuggestion__input")
+            .css("Placeholder", "input[placeholder*='Ürün, Marka Arayın'], input[placeholder*='ürün'], input[placeholder*='arayın']")
+            .css("Class", ".autocomplete-input, .search-input")
+            .css("Dynamic input scan", "input[placeholder*='arayın' i], input[placeholder*='ürün' i], input[id*='search'], "
+                    + "input[class*='search'], input[class*='autocomplete']")
+            .visible();
     
+    // Web Elements using @FindBy annotation
     @FindBy(css = "button[type='submit'], .search-button, button.search-submit, .header-search button, .search-form button")
     private WebElement searchButton;
     
     @FindBy(css = ".o-header__logo, .logo, .header-logo, [alt*='Beymen'], [alt*='beymen']")
     private WebElement beymenLogo;
     
-    @FindBy(css = "button[id='onetrust-accept-btn-handler'], button[id*='accept'], button[class*='accept']")
-    private WebElement acceptCookiesButton;
+    // Optional interstitials, checked with fast-fail probes
+    private static final By ACCEPT_COOKIES_BUTTON = By.cssSelector("button[id='onetrust-accept-btn-handler'], button[id*='accept'], button[class*='accept']");
     
-    @FindBy(css = ".gender-popup, .popup-close, .close-button, [aria-label*='close'], [aria-label*='kapat'], .modal-close, button[class*='close']")
-    private WebElement genderPopupCloseButton;
+    private static final By GENDER_POPUP_CLOSE_BUTTON = By.cssSelector(".gender-popup, .popup-close, .close-button, [aria-label*='close'], [aria-label*='kapat'], .modal-close, button[class*='close']");
     
-    @FindBy(css = ".gender-popup, .gender-modal, .popup-overlay, .modal-overlay, [class*='gender'], [class*='popup']")
-    private WebElement genderPopup;
+    private static final By GENDER_POPUP = By.cssSelector(".gender-popup, .gender-modal, .popup-overlay, .modal-overlay, [class*='gender'], [class*='popup']");
     
     /**
      * Constructor
@@ -54,7 +59,7 @@ public class HomePage extends BasePage {
      * Navigate to home page
      */
     public void navigateToHomePage() {
-        driver.get(HOME_PAGE_URL);
+        SessionPreparer.navigate(driver, HOME_PAGE_URL);
         logger.info("Navigated to Beymen home page");
         handleCookies();
     }
@@ -75,45 +80,15 @@ public class HomePage extends BasePage {
     
     /**
      * Find search box using multiple locator strategies
+     * All strategies are evaluated in one script call instead of one round trip per locator
      * @return WebElement of search box
      */
     private WebElement findSearchBox() {
-        WebElement[] searchElements = {searchBox, searchBoxCSS, searchBoxPlaceholder, searchBoxClass};
-        String[] descriptions = {"XPath", "CSS ID", "Placeholder", "Class"};
-        
-        for (int i = 0; i < searchElements.length; i++) {
-            try {
-                if (searchElements[i].isDisplayed()) {
-                    logger.info("Found search box using " + descriptions[i] + " locator");
-                    return searchElements[i];
-                }
-            } catch (Exception e) {
-                logger.warn("Search box not found with " + descriptions[i] + " locator: " + e.getMessage());
-            }
+        WebElement searchElement = findFirst(SEARCH_BOX);
+        if (searchElement == null) {
+            throw new RuntimeException("Could not find search box with any locator strategy");
         }
-        
-        // If none of the @FindBy elements work, try direct driver search
-        try {
-            java.util.List<org.openqa.selenium.WebElement> inputs = driver.findElements(org.openqa.selenium.By.tagName("input"));
-            for (org.openqa.selenium.WebElement input : inputs) {
-                if (input.isDisplayed()) {
-                    String placeholder = input.getAttribute("placeholder");
-                    String id = input.getAttribute("id");
-                    String className = input.getAttribute("class");
-                    
-                    if ((placeholder != null && (placeholder.toLowerCase().contains("arayın") || placeholder.toLowerCase().contains("ürün"))) ||
-                        (id != null && id.contains("search")) ||
-                        (className != null && (className.contains("search") || className.contains("autocomplete")))) {
-                        logger.info("Found search box using dynamic search");
-                        return input;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Dynamic search box finding failed: " + e.getMessage());
-        }
-        
-        throw new RuntimeException("Could not find search box with any locator strategy");
+        return searchElement;
     }
     
     /**
@@ -141,9 +116,9 @@ public class HomePage extends BasePage {
             searchElement.sendKeys(searchTerm);
             logger.info("Entered search term: " + searchTerm);
             
-            // Verify the text was entered correctly
-            String actualValue = searchElement.getAttribute("value");
-            logger.info("Search box value after input: '" + actualValue + "'");
+            // Continue as soon as the typed text is reflected in the input value
+            waitForValue(searchElement, searchTerm);
+            logger.info("Search box value after input: '" + searchElement.getAttribute("value") + "'");
         } catch (Exception e) {
             logger.error("Failed to enter search term: " + e.getMessage());
             throw new RuntimeException("Could not enter search term: " + searchTerm);
@@ -161,9 +136,9 @@ public class HomePage extends BasePage {
             searchElement.sendKeys(Keys.DELETE);
             logger.info("Cleared search box");
             
-            // Verify it's actually cleared
-            String actualValue = searchElement.getAttribute("value");
-            logger.info("Search box value after clearing: '" + actualValue + "'");
+            // Continue as soon as the input is actually empty
+            waitForValue(searchElement, "");
+            logger.info("Search box value after clearing: '" + searchElement.getAttribute("value") + "'");
         } catch (Exception e) {
             logger.error("Failed to clear search box: " + e.getMessage());
             throw new RuntimeException("Could not clear search box");
@@ -178,34 +153,84 @@ public class HomePage extends BasePage {
      */
     public SearchResultsPage performCompleteSearch(String firstTerm, String secondTerm) {
         try {
-            // Step 1: Click on search box
+            // Step 1: Click on search box and wait until it has focus
             clickSearchBox();
-            Thread.sleep(2000); // Set to 2 seconds
+            WebElement focusedSearchBox = findSearchBox();
+            waitOptionally("search box to receive focus",
+                    d -> focusedSearchBox.equals(d.switchTo().activeElement()), scaledTimeout(Duration.ofSeconds(2)));
             
-            // Step 2: Enter first search term
+            // Step 2: Enter first search term (waits for the input value)
             enterSearchTerm(firstTerm);
-            Thread.sleep(2000); // Set to 2 seconds
             
-            // Step 3: Clear the search box
+            // Step 3: Clear the search box (waits for the input to be empty)
             clearSearchBox();
-            Thread.sleep(2000); // Set to 2 seconds
             
-            // Step 4: Enter second search term
+            // Step 4: Enter second search term (waits for the input value)
             enterSearchTerm(secondTerm);
-            Thread.sleep(2000); // Set to 2 seconds
-            
-            // Step 5: Press Enter to search
-            WebElement searchElement = findSearchBox();
-            searchElement.sendKeys(Keys.ENTER);
-            logger.info("Pressed Enter key to search for: " + secondTerm);
             
-            return new SearchResultsPage(driver);
+            // Step 5: Press Enter to search and wait for the results
+            return submitSearch(secondTerm);
         } catch (Exception e) {
             logger.error("Failed to perform complete search: " + e.getMessage());
             throw new RuntimeException("Could not perform search workflow");
         }
     }
     
+    /**
+     * Search for a term using the given path
+     * @param mode UI to type into the search box, DEEP_LINK to open the results URL directly
+     * @param searchTerm term to search for
+     * @return SearchResultsPage
+     */
+    public SearchResultsPage search(SearchMode mode, String searchTerm) {
+        if (mode == SearchMode.DEEP_LINK) {
+            return openSearchResults(searchTerm);
+        }
+        try {
+            clickSearchBox();
+            enterSearchTerm(searchTerm);
+            return submitSearch(searchTerm);
+        } catch (Exception e) {
+            logger.error("Failed to search: " + e.getMessage());
+            throw new RuntimeException("Could not search for: " + searchTerm);
+        }
+    }
+    
+    /**
+     * Open the search results URL for a term directly, skipping the search box
+     * The term is URL-encoded as UTF-8, so Turkish characters are preserved
+     * @param searchTerm term to search for
+     * @return SearchResultsPage
+     */
+    public SearchResultsPage openSearchResults(String searchTerm) {
+        String encodedTerm = URLEncoder.encode(searchTerm, StandardCharsets.UTF_8);
+        String resultsUrl = ConfigReader.getProperty("search.url.template", SEARCH_URL_TEMPLATE)
+                .replace("{term}", encodedTerm);
+        SessionPreparer.navigate(driver, resultsUrl);
+        logger.info("Opened search results directly for: " + searchTerm + " (" + resultsUrl + ")");
+        waitForPageToSettle();
+        return new SearchResultsPage(driver);
+    }
+    
+    /**
+     * Press Enter in the search box and wait until the results page has loaded
+     * @param searchTerm term being searched, for logging
+     * @return SearchResultsPage
+     */
+    private SearchResultsPage submitSearch(String searchTerm) {
+        String urlBeforeSearch = driver.getCurrentUrl();
+        WebElement searchElement = findSearchBox();
+        searchElement.sendKeys(Keys.ENTER);
+        logger.info("Pressed Enter key to search for: " + searchTerm);
+        waitOptionally("results page to load after search",
+                d -> !d.getCurrentUrl().equals(urlBeforeSearch), scaledTimeout(Duration.ofSeconds(10)));
+        
+        // Continue once the results page has stopped loading and rendering
+        waitForPageToSettle();
+        
+        return new SearchResultsPage(driver);
+    }
+    
     /**
      * Click search button directly
      * @return SearchResultsPage
@@ -218,18 +243,30 @@ public class HomePage extends BasePage {
     
     /**
      * Handle cookie consent if present
+     * Uses a fast-fail probe so an absent banner costs milliseconds, not the implicit wait
      */
     private void handleCookies() {
         try {
-            if (acceptCookiesButton.isDisplayed()) {
-                clickElement(acceptCookiesButton);
+            Optional<WebElement> acceptCookiesButton = probeVisible(ACCEPT_COOKIES_BUTTON, getInterstitialDeadline());
+            if (acceptCookiesButton.isPresent()) {
+                clickElement(acceptCookiesButton.get());
                 logger.info("Accepted cookies");
-                handleGenderPopup();
+            } else {
+                logger.info("Cookie consent not displayed or already accepted");
             }
         } catch (Exception e) {
-            logger.info("Cookie consent not displayed or already accepted");
-            handleGenderPopup();
+            logger.info("Cookie consent could not be accepted: " + e.getMessage());
         }
+        handleGenderPopup();
+    }
+    
+    /**
+     * Get how long to wait for an interstitial to render
+     * A pre-seeded session is only checked once as a safety net, since the popups are not expected
+     * @return probe deadline
+     */
+    private Duration getInterstitialDeadline() {
+        return SessionPreparer.isPrepared(driver) ? Duration.ZERO : OPTIONAL_ELEMENT_DEADLINE;
     }
     
     /**
@@ -237,11 +274,17 @@ public class HomePage extends BasePage {
      */
     private void handleGenderPopup() {
         try {
-            Thread.sleep(2000); // Set to 2 seconds
-            
-            if (genderPopup.isDisplayed()) {
-                clickElement(genderPopupCloseButton);
-                logger.info("Closed gender selection popup");
+            // Continue as soon as the popup renders; an absent popup costs only the probe deadline
+            Optional<WebElement> genderPopup = probeVisible(GENDER_POPUP, getInterstitialDeadline());
+            if (genderPopup.isPresent()) {
+                Optional<WebElement> closeButton = probeVisible(GENDER_POPUP_CLOSE_BUTTON, Duration.ZERO);
+                if (closeButton.isPresent()) {
+                    clickElement(closeButton.get());
+                    waitForElementToDisappear(genderPopup.get());
+                    logger.info("Closed gender selection popup");
+                }
+            } else {
+                logger.info("Gender popup not displayed or already closed");
             }
         } catch (Exception e) {
             logger.info("Gender popup not displayed or already closed");
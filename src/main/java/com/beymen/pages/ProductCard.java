@@ -0,0 +1,134 @@
+package com.beymen.pages;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable data of one product card on the search results page
+ * Holds plain values only, so it stays valid after the page changes
+ */
+public final class ProductCard {
+    
+    private final int index;
+    private final String productId;
+    private final String title;
+    private final String brand;
+    private final String price;
+    private final String href;
+    private final String imageUrl;
+    
+    /**
+     * Constructor
+     * @param index position of the card on the results page (0-based)
+     * @param productId product identifier, the href when the card carries no id
+     * @param title product title
+     * @param brand brand name
+     * @param price displayed price text
+     * @param href absolute product detail URL
+     * @param imageUrl product image URL
+     */
+    public ProductCard(int index, String productId, String title, String brand, String price, String href,
+                       String imageUrl) {
+        this.index = index;
+        this.productId = productId;
+        this.title = title;
+        this.brand = brand;
+        this.price = price;
+        this.href = href;
+        this.imageUrl = imageUrl;
+    }
+    
+    /**
+     * Create a card from one entry returned by the snapshot script
+     * @param values card values keyed by field name
+     * @return ProductCard
+     */
+    static ProductCard fromScriptResult(Map<String, Object> values) {
+        String productId = stringValue(values, "id");
+        return new ProductCard(((Number) values.get("index")).intValue(),
+                productId.isEmpty() ? stringValue(values, "href") : productId, stringValue(values, "title"), stringValue(values, "brand"), stringValue(values, "price"),
+                stringValue(values, "href"), stringValue(values, "image"));
+    }
+    
+    /**
+     * Get position of the card on the results page
+     * @return card index
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Get product identifier, used to recognise the same product across pages
+     * @return product id, or the product URL if the card has no id
+     */
+    public String getProductId() {
+        return productId;
+    }
+    
+    /**
+     * Get product title
+     * @return title, empty if not found
+     */
+    public String getTitle() {
+        return title;
+    }
+    
+    /**
+     * Get brand name
+     * @return brand, empty if not found
+     */
+    public String getBrand() {
+        return brand;
+    }
+    
+    /**
+     * Get displayed price text
+     * @return price text, empty if not found
+     */
+    public String getPrice() {
+        return price;
+    }
+    
+    /**
+     * Get absolute product detail URL
+     * @return product URL, empty if the card has no link
+     */
+    public String getHref() {
+        return href;
+    }
+    
+    /**
+     * Get product image URL
+     * @return image URL, empty if not found
+     */
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    /**
+     * Check if title or brand contains any of the keywords (case-insensitive)
+     * @param keywords lowercase keywords
+     * @return true if any keyword matches
+     */
+    public boolean matchesAny(String... keywords) {
+        String text = (brand + " " + title).toLowerCase(Locale.ROOT);
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public String toString() {
+        return "#" + index + " " + (brand.isEmpty() ? "" : brand + " - ") + title
+                + (price.isEmpty() ? "" : " (" + price + ")");
+    }
+    
+    private static String stringValue(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        return value == null ? "" : value.toString().trim();
+    }
+} 
\ No newline at end of file
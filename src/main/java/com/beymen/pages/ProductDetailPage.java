@@ -1,9 +1,15 @@
 package com.beymen.pages;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 
 /**
@@ -19,27 +25,112 @@ public class ProductDetailPage extends BasePage {
     @FindBy(css = ".m-price__new, .price, .product-price, .pdp-price")
     private WebElement productPrice;
     
-    @FindBy(id = "addBasket")
-    private WebElement addToCartButton;
+    @FindBy(css = ".cart-icon, .sepet, .basket-icon, .header-cart")
+    private WebElement cartIcon;
     
-    @FindBy(xpath = "//*[@id='sizes']/div[1]")
-    private WebElement firstSizeOption;
+    // Optional elements, checked with fast-fail probes
+    private static final By ADD_BASKET_BUTTON = By.id("addBasket");
     
-    @FindBy(xpath = "//*[@id='sizes']")
-    private WebElement sizesContainer;
+    // Size variants: children of the #sizes container first, then known size option classes
+    private static final String SIZE_OPTION_SELECTORS = "#sizes > div, #sizes button, #sizes span, "
+            + ".size-option, .size-selector, .variant-size, .size-button, .m-variantSize, .variant-option, "
+            + ".size-item, .product-size, .beden, [data-size], .size-list div, .size-list button";
     
-    @FindBy(css = ".size-option, .size-selector, .variant-size, .size-button, .m-variantSize, .variant-option, .size-item, .product-size")
-    private List<WebElement> sizeOptions;
+    private static final String ADD_TO_CART_SELECTOR = "#addBasket, .m-addBasketFavorite__basket, .add-to-cart, "
+            + ".sepete-ekle, .o-productDetail__addBasket, .m-productDetail__addToCart, .btn-add-to-cart";
     
-    @FindBy(css = ".cart-icon, .sepet, .basket-icon, .header-cart")
-    private WebElement cartIcon;
+    private static final String SIZE_STATE_FUNCTIONS =
+            "function hasFlag(e, pattern) {"
+            + "  return pattern.test(e.className && e.className.baseVal !== undefined ? e.className.baseVal : (e.className || ''));"
+            + "}"
+            + "function isUnavailable(e) {"
+            + "  return !!e.disabled || e.getAttribute('aria-disabled') === 'true' || e.getAttribute('data-stock') === '0'"
+            + "    || hasFlag(e, /disabled|passive|inactive|out-?of-?stock|sold-?out|tukendi|unavailable/i);"
+            + "}"
+            + "function isSelected(e) {"
+            + "  return e.getAttribute('aria-checked') === 'true' || e.getAttribute('aria-pressed') === 'true'"
+            + "    || e.getAttribute('aria-selected') === 'true'"
+            // Whole class tokens only, so 'inactive' or 'unselected' do not count as selected
+            + "    || hasFlag(e, /(^|\\s)(is-)?(selected|active|checked)(\\s|$)/i);"
+            + "}"
+            + "function addToCartEnabled(selector) {"
+            + "  var button = document.querySelector(selector);"
+            + "  return !!button && !isUnavailable(button);"
+            + "}";
+    
+    /**
+     * Script evaluated by the browser: arguments[0] is the size option selector, arguments[1] the add to cart selector
+     * Returns {options: [{element, label, inStock, selected}], addToCartEnabled}
+     * Size chart links, empty options and wrappers around other options are skipped
+     */
+    private static final String SIZE_SCAN_SCRIPT = SIZE_STATE_FUNCTIONS
+            + "var nodes = document.querySelectorAll(arguments[0]), options = [];"
+            + "for (var i = 0; i < nodes.length; i++) {"
+            + "  var e = nodes[i];"
+            + "  var label = (e.innerText || e.textContent || '').trim();"
+            + "  if (!label || /tablosu|chart|guide/i.test(label) || e.querySelector(arguments[0])) { continue; }"
+            + "  if (!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)) { continue; }"
+            + "  var unavailable = isUnavailable(e) || (e.parentElement && isUnavailable(e.parentElement));"
+            + "  options.push({ element: e, label: label, inStock: !unavailable, selected: isSelected(e) });"
+            + "}"
+            + "return { options: options, addToCartEnabled: addToCartEnabled(arguments[1]) };";
+    
+    /**
+     * Script evaluated by the browser: arguments[0] is a size option element, arguments[1] the add to cart selector
+     * Returns {selected, addToCartEnabled}
+     */
+    private static final String SIZE_STATE_SCRIPT = SIZE_STATE_FUNCTIONS
+            + "return { selected: isSelected(arguments[0]), addToCartEnabled: addToCartEnabled(arguments[1]) };";
     
     // Pop-up elements after adding to cart
-    @FindBy(css = ".popup, .modal, .overlay, .cart-popup, .sepet-popup")
-    private WebElement addToCartPopup;
+    private static final By ADD_TO_CART_POPUP = By.cssSelector(".popup, .modal, .overlay, .cart-popup, .sepet-popup");
+    
+    private static final By POPUP_GO_TO_CART_BUTTON = By.xpath("//div/button[2]");
+    
+    // Overlays that can block the add to cart button
+    private static final String MODAL_OVERLAY_SELECTOR = ".modal, .o-modal, .overlay, .popup";
+    
+    private static final ElementQuery MODAL_CLOSE_BUTTON = ElementQuery.named("modal close button")
+            .css(".modal .close", ".modal .btn-close", ".overlay .close",
+                 ".popup .close", ".o-modal .close", ".modal-close",
+                 "button[aria-label='Close']", "button[aria-label='Kapat']",
+                 ".fa-times", ".fa-close", ".icon-close")
+            .visible();
     
-    @FindBy(xpath = "//div/button[2]")
-    private WebElement popupGoToCartButton;
+    private static final ElementQuery GO_TO_CART_BUTTON = ElementQuery.named("'Sepete Git' button")
+            .css(".go-to-cart", ".sepete-git", ".cart-button",
+                 "button[class*='cart']", ".btn-cart", ".sepet-git-btn",
+                 ".popup .btn", ".modal .btn", ".popup button", ".modal button",
+                 "[href*='cart']", "[href*='sepet']")
+            .visible()
+            .enabled()
+            .textContains("sepet", "cart", "git", "go");
+    
+    private static final ElementQuery ADD_TO_CART_BUTTON = ElementQuery.named("add to cart button")
+            .css(
+                // Start with the specific ID
+                "#addBasket",
+                
+                // Common patterns
+                ".m-addBasketFavorite__basket", ".add-to-cart", ".sepete-ekle",
+                "button[class*='basket']", "button[class*='cart']", ".btn-add-bag",
+                ".add-to-basket", "button[class*='sepet']", ".sepet-ekle-btn",
+                ".basket-add", ".cart-add",
+                
+                // More specific patterns
+                ".o-productDetail__addBasket", ".m-productDetail__addToCart",
+                ".product-add-cart", ".product-add-basket", ".pdp-add-cart",
+                ".btn-add-to-cart", ".btn-add-to-basket", ".btn-sepet-ekle",
+                
+                // Generic button patterns that might be add to cart
+                "button[id*='cart']", "button[id*='basket']", "button[id*='sepet']",
+                "button[data-action*='cart']", "button[data-action*='basket']",
+                "button[onclick*='cart']", "button[onclick*='basket']")
+            .visible()
+            .enabled()
+            .textContains("sepete", "cart", "basket", "ekle")
+            .attributeContains("class", "cart", "basket", "sepet")
+            .attributeContains("id", "cart", "basket", "sepet", "addbasket");
     
     /**
      * Constructor
@@ -89,33 +180,22 @@ public class ProductDetailPage extends BasePage {
     private void closeModalIfPresent() {
         try {
             // Try to find and close any modal/overlay
-            String[] modalCloseSelectors = {
-                ".modal .close", ".modal .btn-close", ".overlay .close",
-                ".popup .close", ".o-modal .close", ".modal-close",
-                "button[aria-label='Close']", "button[aria-label='Kapat']",
-                ".fa-times", ".fa-close", ".icon-close"
-            };
-            
-            for (String selector : modalCloseSelectors) {
+            WebElement closeButton = findFirst(MODAL_CLOSE_BUTTON);
+            if (closeButton != null) {
                 try {
-                    java.util.List<WebElement> closeButtons = driver.findElements(org.openqa.selenium.By.cssSelector(selector));
-                    for (WebElement closeButton : closeButtons) {
-                        if (closeButton.isDisplayed()) {
-                            clickElement(closeButton);
-                            logger.info("Closed modal/overlay");
-                            Thread.sleep(2000); // Set to 2 seconds
-                            return;
-                        }
-                    }
+                    clickElement(closeButton);
+                    waitForElementToDisappear(closeButton);
+                    logger.info("Closed modal/overlay");
+                    return;
                 } catch (Exception e) {
-                    // Continue to next selector
+                    logger.info("Modal close button not clickable: " + e.getMessage());
                 }
             }
             
             // Try pressing Escape key to close modal
             try {
                 driver.findElement(org.openqa.selenium.By.tagName("body")).sendKeys(org.openqa.selenium.Keys.ESCAPE);
-                Thread.sleep(2000); // Set to 2 seconds
+                waitForOverlayToDisappear(MODAL_OVERLAY_SELECTOR);
                 logger.info("Pressed ESC to close modal");
             } catch (Exception e) {
                 // Continue
@@ -133,40 +213,16 @@ public class ProductDetailPage extends BasePage {
     private boolean handleAddToCartPopup() {
         try {
             // Try multiple selectors for the "Sepete Git" button in popup
-            String[] goToCartSelectors = {
-                ".go-to-cart", ".sepete-git", ".cart-button", 
-                "button[class*='cart']", ".btn-cart", ".sepet-git-btn",
-                ".popup .btn", ".modal .btn", ".popup button", ".modal button",
-                "[href*='cart']", "[href*='sepet']", 
-                "button:contains('Sepete')", "button:contains('Sepet')",
-                "a:contains('Sepete')", "a:contains('Sepet')"
-            };
-            
-            for (String selector : goToCartSelectors) {
-                try {
-                    java.util.List<WebElement> buttons = driver.findElements(org.openqa.selenium.By.cssSelector(selector));
-                    for (WebElement button : buttons) {
-                        if (button.isDisplayed() && button.isEnabled()) {
-                            String buttonText = button.getText().toLowerCase();
-                            if (buttonText.contains("sepet") || buttonText.contains("cart") || 
-                                buttonText.contains("git") || buttonText.contains("go")) {
-                                
-                                scrollToElement(button);
-                                clickElement(button);
-                                logger.info("Clicked 'Sepete Git' button in popup: " + button.getText());
-                                Thread.sleep(2000); // Set to 2 seconds
-                                
-                                // Verify we're on cart page
-                                String currentUrl = driver.getCurrentUrl();
-                                if (currentUrl.contains("cart") || currentUrl.contains("sepet")) {
-                                    logger.info("Successfully navigated to cart page: " + currentUrl);
-                                    return true;
-                                }
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    // Continue to next selector
+            WebElement button = findFirst(GO_TO_CART_BUTTON);
+            if (button != null) {
+                scrollToElement(button);
+                clickElement(button);
+                logger.info("Clicked 'Sepete Git' button in popup");
+                
+                // Verify we're on cart page
+                if (waitForCartUrl()) {
+                    logger.info("Successfully navigated to cart page: " + driver.getCurrentUrl());
+                    return true;
                 }
             }
             
@@ -193,7 +249,8 @@ public class ProductDetailPage extends BasePage {
             // Try to use the specific addBasket button ID provided by user
             boolean addToCartSuccess = false;
             try {
-                if (addToCartButton.isDisplayed() && addToCartButton.isEnabled()) {
+                WebElement addToCartButton = probeVisible(ADD_BASKET_BUTTON, Duration.ZERO).orElse(null);
+                if (addToCartButton != null && addToCartButton.isEnabled()) {
                     scrollToElement(addToCartButton);
                     
                     // Try multiple click methods
@@ -246,8 +303,9 @@ public class ProductDetailPage extends BasePage {
                 }
             }
             
-            // Wait for popup to appear
-            Thread.sleep(2000);
+            // Let the add to cart request finish, then continue as soon as the popup renders
+            waitForNetworkIdle(getNetworkQuietPeriod(), scaledTimeout(Duration.ofSeconds(5)));
+            probeVisible(ADD_TO_CART_POPUP, scaledTimeout(Duration.ofSeconds(5)));
             
             // Handle the popup using the specific XPath provided
             boolean popupHandled = handleAddToCartPopupWithSpecificXPath();
@@ -265,7 +323,7 @@ public class ProductDetailPage extends BasePage {
                 }
             }
             
-            Thread.sleep(2000);
+            waitForPageLoad();
             return new CartPage(driver);
         } catch (Exception e) {
             logger.error("Failed to add product to cart: " + e.getMessage());
@@ -274,179 +332,106 @@ public class ProductDetailPage extends BasePage {
     }
     
     /**
-     * Check if sizes are available and select one if they exist
+     * Read every size variant of the product in one script call
+     * @return size options in page order, empty if the product has no sizes
+     */
+    public List<SizeOption> getSizeOptions() {
+        return toSizeOptions(scanSizes());
+    }
+    
+    /**
+     * Run the size scan script
+     * @return scan result with "options" and the "addToCartEnabled" flag
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> scanSizes() {
+        return (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeScript(SIZE_SCAN_SCRIPT, SIZE_OPTION_SELECTORS, ADD_TO_CART_SELECTOR);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<SizeOption> toSizeOptions(Map<String, Object> scan) {
+        List<SizeOption> options = new ArrayList<>();
+        for (Map<String, Object> rawOption : (List<Map<String, Object>>) scan.get("options")) {
+            options.add(SizeOption.fromScriptResult(rawOption));
+        }
+        return options;
+    }
+    
+    /**
+     * Check if sizes are available and select an in-stock one if they exist
      * @return true if size was selected, false if no sizes available
      */
     private boolean checkAndSelectSizeIfAvailable() {
         try {
-            Thread.sleep(2000); // Set to 2 seconds
+            waitForPageLoad();
             
             logger.info("Checking if product has sizes that need to be selected");
-            
-            // First check if the sizes container exists using the specific XPath
-            try {
-                if (sizesContainer.isDisplayed()) {
-                    logger.info("Sizes container found - product REQUIRES size selection");
-                    
-                    // Try to click the first size option using the provided XPath
-                    try {
-                        if (firstSizeOption.isDisplayed() && firstSizeOption.isEnabled()) {
-                            scrollToElement(firstSizeOption);
-                            clickElement(firstSizeOption);
-                            
-                            String sizeText = firstSizeOption.getText();
-                            logger.info("SUCCESS: Selected first size using provided XPath: '" + sizeText + "'");
-                            Thread.sleep(1000); // Brief wait to ensure size is selected
-                            return true;
-                        }
-                    } catch (Exception e) {
-                        logger.info("First size option not clickable: " + e.getMessage());
-                    }
-                    
-                    // If first size not clickable, try to find other clickable sizes in the container
-                    try {
-                        java.util.List<WebElement> sizesInContainer = sizesContainer.findElements(org.openqa.selenium.By.xpath(".//div"));
-                        logger.info("Found " + sizesInContainer.size() + " div elements in sizes container");
-                        
-                        for (int i = 0; i < sizesInContainer.size(); i++) {
-                            WebElement sizeOption = sizesInContainer.get(i);
-                            if (sizeOption.isDisplayed() && sizeOption.isEnabled()) {
-                                try {
-                                    String sizeText = sizeOption.getText().trim();
-                                    
-                                    // Skip if it's a size chart link or contains unwanted text
-                                    if (sizeText.toLowerCase().contains("tablosu") || 
-                                        sizeText.toLowerCase().contains("chart") || 
-                                        sizeText.toLowerCase().contains("guide") ||
-                                        sizeText.isEmpty()) {
-                                        logger.info("Skipping size option " + (i+1) + " (chart/guide): '" + sizeText + "'");
-                                        continue;
-                                    }
-                                    
-                                    logger.info("Attempting to select size option " + (i+1) + ": '" + sizeText + "'");
-                                    
-                                    scrollToElement(sizeOption);
-                                    clickElement(sizeOption);
-                                    
-                                    logger.info("SUCCESS: Selected size '" + sizeText + "' at position " + (i+1));
-                                    Thread.sleep(1000); // Brief wait to ensure size is selected
-                                    return true;
-                                } catch (Exception e) {
-                                    logger.info("Could not click size option " + (i+1) + ": " + e.getMessage());
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.info("Error finding sizes in container: " + e.getMessage());
-                    }
-                    
-                    // Try alternative approach - look for clickable elements within sizes container
-                    try {
-                        java.util.List<WebElement> clickableElements = sizesContainer.findElements(
-                            org.openqa.selenium.By.xpath(".//*[self::div or self::button or self::span][not(contains(@class, 'disabled'))]"));
-                        logger.info("Found " + clickableElements.size() + " potentially clickable elements in sizes container");
-                        
-                        for (int i = 0; i < clickableElements.size(); i++) {
-                            WebElement element = clickableElements.get(i);
-                            if (element.isDisplayed() && element.isEnabled()) {
-                                try {
-                                    String elementText = element.getText().trim();
-                                    String elementClass = element.getAttribute("class");
-                                    
-                                    // Skip unwanted elements
-                                    if (elementText.toLowerCase().contains("tablosu") || 
-                                        elementText.toLowerCase().contains("chart") || 
-                                        elementText.toLowerCase().contains("guide") ||
-                                        (elementClass != null && elementClass.toLowerCase().contains("disabled"))) {
-                                        continue;
-                                    }
-                                    
-                                    logger.info("Trying clickable element " + (i+1) + ": '" + elementText + "', class: '" + elementClass + "'");
-                                    
-                                    scrollToElement(element);
-                                    clickElement(element);
-                                    
-                                    logger.info("SUCCESS: Selected size via clickable element: '" + elementText + "'");
-                                    Thread.sleep(1000);
-                                    return true;
-                                } catch (Exception e) {
-                                    logger.info("Could not click element " + (i+1) + ": " + e.getMessage());
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.info("Error finding clickable elements in sizes container: " + e.getMessage());
-                    }
-                    
-                    logger.error("CRITICAL: Sizes container found but NO SELECTABLE size options - this will cause add to cart to fail!");
-                    return false;
-                }
-            } catch (Exception e) {
-                logger.info("Sizes container not found using specific XPath: " + e.getMessage());
+            Map<String, Object> scan = scanSizes();
+            List<SizeOption> options = toSizeOptions(scan);
+            if (options.isEmpty()) {
+                logger.info("No sizes found - product can be added to cart directly without size selection");
+                return false;
             }
+            logger.info("Found " + options.size() + " size options: " + options);
             
-            // Check if there are any other size selectors on the page using broader search
-            try {
-                String[] sizeSelectors = {
-                    "#sizes", "#sizes div", "#sizes button", "#sizes span",
-                    ".size-option", ".size-selector", ".variant-size", ".size-button", 
-                    ".m-variantSize", ".variant-option", ".size-item", ".product-size",
-                    ".beden", ".sizes", "[data-size]", ".size-list div", ".size-list button"
-                };
-                
-                for (String selector : sizeSelectors) {
-                    try {
-                        java.util.List<WebElement> sizeElements = driver.findElements(org.openqa.selenium.By.cssSelector(selector));
-                        
-                        if (!sizeElements.isEmpty()) {
-                            logger.info("Found " + sizeElements.size() + " size elements with selector: " + selector);
-                            
-                            for (WebElement sizeElement : sizeElements) {
-                                if (sizeElement.isDisplayed() && sizeElement.isEnabled()) {
-                                    try {
-                                        String sizeText = sizeElement.getText().trim();
-                                        String sizeClass = sizeElement.getAttribute("class");
-                                        
-                                        // Skip size chart links and disabled elements
-                                        if (sizeText.toLowerCase().contains("tablosu") || 
-                                            sizeText.toLowerCase().contains("chart") || 
-                                            sizeText.toLowerCase().contains("guide") ||
-                                            (sizeClass != null && sizeClass.toLowerCase().contains("disabled")) ||
-                                            sizeText.isEmpty()) {
-                                            continue;
-                                        }
-                                        
-                                        logger.info("Attempting to select alternative size: '" + sizeText + "' with selector: " + selector);
-                                        
-                                        scrollToElement(sizeElement);
-                                        clickElement(sizeElement);
-                                        
-                                        logger.info("SUCCESS: Selected alternative size: '" + sizeText + "'");
-                                        Thread.sleep(1000);
-                                        return true;
-                                    } catch (Exception e) {
-                                        logger.info("Could not click alternative size element: " + e.getMessage());
-                                    }
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Continue to next selector
-                    }
-                }
-            } catch (Exception e) {
-                logger.info("Error in alternative size search: " + e.getMessage());
+            Optional<SizeOption> selectedOption = options.stream()
+                    .filter(option -> option.isSelected() && option.isInStock()).findFirst();
+            if (selectedOption.isPresent()) {
+                logger.info("Size already selected: " + selectedOption.get());
+                return true;
             }
             
-            logger.info("No sizes found - product can be added to cart directly without size selection");
-            return false;
+            Optional<SizeOption> inStockOption = options.stream().filter(SizeOption::isInStock).findFirst();
+            if (!inStockOption.isPresent()) {
+                logger.error("CRITICAL: Sizes found but NO SELECTABLE size options - this will cause add to cart to fail!");
+                return false;
+            }
             
+            if (!selectSize(inStockOption.get(), Boolean.TRUE.equals(scan.get("addToCartEnabled")))) {
+                logger.warn("Size " + inStockOption.get() + " was clicked but the page did not confirm the selection");
+                return false;
+            }
+            logger.info("SUCCESS: Selected size " + inStockOption.get());
+            return true;
         } catch (Exception e) {
             logger.error("Error checking for sizes: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Click a size option and wait until the page confirms the selection
+     * Confirmed by the add to cart button becoming enabled, or by the option being marked selected
+     * when the button was enabled all along
+     * @param option in-stock size option to click
+     * @param addToCartEnabledBefore whether the add to cart button was enabled before the click
+     * @return true if the selection was confirmed in time
+     */
+    @SuppressWarnings("unchecked")
+    private boolean selectSize(SizeOption option, boolean addToCartEnabledBefore) {
+        WebElement sizeElement = option.getElement();
+        scrollToElement(sizeElement);
+        clickElement(sizeElement);
+        return waitOptionally("size " + option + " to be confirmed", d -> {
+            Map<String, Object> state = (Map<String, Object>) ((JavascriptExecutor) d)
+                    .executeScript(SIZE_STATE_SCRIPT, sizeElement, ADD_TO_CART_SELECTOR);
+            return Boolean.TRUE.equals(state.get("selected"))
+                    || !addToCartEnabledBefore && Boolean.TRUE.equals(state.get("addToCartEnabled"));
+        }, scaledTimeout(Duration.ofSeconds(2)));
+    }
+    
+    /**
+     * Wait until the browser is on the cart page
+     * @return true if the URL points to the cart
+     */
+    private boolean waitForCartUrl() {
+        return waitOptionally("cart page to open", d -> {
+            String currentUrl = d.getCurrentUrl();
+            return currentUrl.contains("cart") || currentUrl.contains("sepet");
+        }, scaledTimeout(Duration.ofSeconds(8)));
+    }
+    
     /**
      * Handle add to cart popup using the specific XPath provided: //div/button[2]
      * @return true if popup was handled successfully
@@ -455,15 +440,15 @@ public class ProductDetailPage extends BasePage {
         try {
             // First try the specific popup button XPath provided by user
             try {
-                if (popupGoToCartButton.isDisplayed() && popupGoToCartButton.isEnabled()) {
+                WebElement popupGoToCartButton = probeVisible(POPUP_GO_TO_CART_BUTTON, Duration.ZERO).orElse(null);
+                if (popupGoToCartButton != null && popupGoToCartButton.isEnabled()) {
                     scrollToElement(popupGoToCartButton);
                     clickElement(popupGoToCartButton);
                     logger.info("Clicked popup 'Sepete Git' button using specific XPath: //div/button[2]");
-                    Thread.sleep(2000);
                     
                     // Verify we're on cart page
-                    String currentUrl = driver.getCurrentUrl();
-                    if (currentUrl.contains("cart") || currentUrl.contains("sepet")) {
+                    if (waitForCartUrl()) {
+                        String currentUrl = driver.getCurrentUrl();
                         logger.info("Successfully navigated to cart page: " + currentUrl);
                         return true;
                     }
@@ -484,103 +469,11 @@ public class ProductDetailPage extends BasePage {
     
     /**
      * Find add to cart button with comprehensive search
+     * All selectors and filters are evaluated in a single script call
      * @return WebElement of add to cart button or null if not found
      */
     private WebElement findAddToCartButton() {
-        // First, let's debug the specific addBasket button
-        try {
-            WebElement addBasketBtn = driver.findElement(org.openqa.selenium.By.id("addBasket"));
-            if (addBasketBtn != null) {
-                logger.info("DEBUG: Found addBasket button - displayed: " + addBasketBtn.isDisplayed() + 
-                           ", enabled: " + addBasketBtn.isEnabled() + 
-                           ", text: '" + addBasketBtn.getText() + "'");
-                if (addBasketBtn.isDisplayed() && addBasketBtn.isEnabled()) {
-                    return addBasketBtn;
-                }
-            }
-        } catch (Exception e) {
-            logger.info("DEBUG: addBasket button not found by ID: " + e.getMessage());
-        }
-        
-        // Try multiple selectors for add to cart button
-        String[] addToCartSelectors = {
-            // Start with the specific ID
-            "#addBasket",
-            
-            // Common patterns
-            ".m-addBasketFavorite__basket", ".add-to-cart", ".sepete-ekle", 
-            "button[class*='basket']", "button[class*='cart']", ".btn-add-bag",
-            ".add-to-basket", "button[class*='sepet']", ".sepet-ekle-btn", 
-            ".basket-add", ".cart-add",
-            
-            // More specific patterns
-            ".o-productDetail__addBasket", ".m-productDetail__addToCart",
-            ".product-add-cart", ".product-add-basket", ".pdp-add-cart",
-            ".btn-add-to-cart", ".btn-add-to-basket", ".btn-sepet-ekle",
-            
-            // Generic button patterns that might be add to cart
-            "button[id*='cart']", "button[id*='basket']", "button[id*='sepet']",
-            "button[data-action*='cart']", "button[data-action*='basket']",
-            "button[onclick*='cart']", "button[onclick*='basket']"
-        };
-        
-        for (String selector : addToCartSelectors) {
-            try {
-                java.util.List<WebElement> buttons = driver.findElements(org.openqa.selenium.By.cssSelector(selector));
-                logger.info("DEBUG: Selector '" + selector + "' found " + buttons.size() + " buttons");
-                
-                for (WebElement button : buttons) {
-                    if (button.isDisplayed() && button.isEnabled()) {
-                        String buttonText = button.getText().toLowerCase();
-                        String buttonClass = button.getAttribute("class");
-                        String buttonId = button.getAttribute("id");
-                        
-                        logger.info("Found potential add to cart button: text='" + button.getText() + 
-                                   "', class='" + buttonClass + "', id='" + buttonId + 
-                                   "', displayed=" + button.isDisplayed() + ", enabled=" + button.isEnabled());
-                        
-                        // Check if it's likely an add to cart button
-                        if (buttonText.contains("sepete") || buttonText.contains("cart") || 
-                            buttonText.contains("basket") || buttonText.contains("ekle") ||
-                            (buttonClass != null && (buttonClass.contains("cart") || buttonClass.contains("basket") || buttonClass.contains("sepet"))) ||
-                            (buttonId != null && (buttonId.contains("cart") || buttonId.contains("basket") || buttonId.contains("sepet") || buttonId.equals("addBasket")))) {
-                            
-                            logger.info("Selected add to cart button: " + button.getText());
-                            return button;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                logger.info("Error with selector " + selector + ": " + e.getMessage());
-                // Continue to next selector
-            }
-        }
-        
-        // If no specific add to cart button found, let's list all buttons for debugging
-        try {
-            java.util.List<WebElement> allButtons = driver.findElements(org.openqa.selenium.By.tagName("button"));
-            logger.info("DEBUG: Found " + allButtons.size() + " total buttons on page");
-            
-            int debugCount = 0;
-            for (WebElement button : allButtons) {
-                if (button.isDisplayed() && button.isEnabled() && debugCount < 10) {
-                    String buttonText = button.getText().trim();
-                    String buttonId = button.getAttribute("id");
-                    String buttonClass = button.getAttribute("class");
-                    
-                    if (!buttonText.isEmpty() || (buttonId != null && !buttonId.isEmpty())) {
-                        logger.info("DEBUG Button " + debugCount + ": text='" + buttonText + 
-                                   "', id='" + buttonId + "', class='" + buttonClass + "'");
-                        debugCount++;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            logger.info("Error listing all buttons: " + e.getMessage());
-        }
-        
-        logger.warn("No add to cart button found with any selector");
-        return null;
+        return findFirst(ADD_TO_CART_BUTTON);
     }
     
     /**
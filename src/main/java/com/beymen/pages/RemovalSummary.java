@@ -0,0 +1,94 @@
+package com.beymen.pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a batch cart removal: which lines were removed or failed and how long each took
+ */
+public final class RemovalSummary {
+    
+    private final int requestedCount;
+    private final List<String> removedLines = new ArrayList<>();
+    private final List<String> failedLines = new ArrayList<>();
+    private final List<Long> removalMillis = new ArrayList<>();
+    private long totalMillis;
+    
+    /**
+     * Constructor
+     * @param requestedCount number of lines in the cart when removal started
+     */
+    RemovalSummary(int requestedCount) {
+        this.requestedCount = requestedCount;
+    }
+    
+    void recordRemoved(String line, long millis) {
+        removedLines.add(line);
+        removalMillis.add(millis);
+    }
+    
+    void recordFailed(String line) {
+        failedLines.add(line);
+    }
+    
+    void finish(long millis) {
+        totalMillis = millis;
+    }
+    
+    /**
+     * Get number of lines in the cart when removal started
+     * @return requested count
+     */
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+    
+    /**
+     * Get number of removed lines
+     * @return removed count
+     */
+    public int getRemovedCount() {
+        return removedLines.size();
+    }
+    
+    /**
+     * Get labels of lines whose removal failed
+     * @return failed lines
+     */
+    public List<String> getFailedLines() {
+        return Collections.unmodifiableList(failedLines);
+    }
+    
+    /**
+     * Get wall-clock time of the whole batch
+     * @return total milliseconds
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+    
+    /**
+     * Get average time from click to the line's disappearance
+     * @return average milliseconds per removed line, 0 if none was removed
+     */
+    public long getAverageMillis() {
+        return removalMillis.isEmpty() ? 0 : removalMillis.stream().mapToLong(Long::longValue).sum() / removalMillis.size();
+    }
+    
+    /**
+     * Check if every line was removed
+     * @return true if nothing failed
+     */
+    public boolean isComplete() {
+        return failedLines.isEmpty() && removedLines.size() >= requestedCount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Removed %d/%d cart line(s) in %d ms (avg %d ms per line, max %d ms)%s",
+                removedLines.size(), requestedCount, totalMillis, getAverageMillis(),
+                removalMillis.stream().mapToLong(Long::longValue).max().orElse(0),
+                failedLines.isEmpty() ? "" : ", failed: " + failedLines);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.beymen.pages;
+
+import com.beymen.utils.ConfigReader;
+
+import java.util.Locale;
+
+/**
+ * How a test reaches the search results page
+ * UI types the term into the search box; DEEP_LINK opens the results URL directly
+ */
+public enum SearchMode {
+    UI,
+    DEEP_LINK;
+    
+    /**
+     * Resolve the search mode of a test from configuration
+     * "search.mode.<testName>" overrides the suite-wide "search.mode"
+     * @param testName test method name
+     * @return configured search mode, UI if none is configured
+     */
+    public static SearchMode forTest(String testName) {
+        String value = ConfigReader.getProperty("search.mode." + testName, ConfigReader.getProperty("search.mode", "ui"));
+        return parse(value);
+    }
+    
+    /**
+     * Parse a configured mode, accepting "ui", "deep_link", "deep-link" and "deepLink"
+     * @param value configured value
+     * @return search mode
+     */
+    public static SearchMode parse(String value) {
+        String normalized = value.trim().replace("-", "_").replaceAll("([a-z])([A-Z])", "$1_$2");
+        try {
+            return valueOf(normalized.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown search mode: " + value);
+        }
+    }
+} 
\ No newline at end of file
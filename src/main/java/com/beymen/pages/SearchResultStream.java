@@ -0,0 +1,132 @@
+package com.beymen.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy batch iterator over all search results of a SearchResultsPage
+ * Reads only newly rendered cards, loads more by scrolling or paging, and remembers
+ * a bounded window of product ids to drop duplicates
+ */
+class SearchResultStream implements Iterator<List<ProductCard>> {
+    
+    private static final Logger logger = LogManager.getLogger(SearchResultStream.class);
+    
+    private final SearchResultsPage page;
+    private final int batchSize;
+    private final int maxLoads;
+    private final int maxProducts;
+    private final Map<String, Boolean> seenProductIds;
+    private final Deque<ProductCard> pending = new ArrayDeque<>();
+    private final long startNanos = System.nanoTime();
+    
+    private int nextCardPosition;
+    private int loads;
+    private int emitted;
+    private int duplicates;
+    private boolean exhausted;
+    private boolean throughputLogged;
+    
+    /**
+     * Constructor
+     * @param page results page to walk
+     * @param batchSize number of products per batch
+     * @param maxLoads maximum number of scroll or page loads
+     * @param maxProducts maximum number of products to emit
+     * @param dedupWindow number of recent product ids remembered for de-duplication
+     */
+    SearchResultStream(SearchResultsPage page, int batchSize, int maxLoads, int maxProducts, int dedupWindow) {
+        if (batchSize < 1 || dedupWindow < 1) {
+            throw new IllegalArgumentException("Batch size and dedup window must be positive");
+        }
+        this.page = page;
+        this.batchSize = batchSize;
+        this.maxLoads = maxLoads;
+        this.maxProducts = maxProducts;
+        this.seenProductIds = new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupWindow;
+            }
+        };
+    }
+    
+    @Override
+    public boolean hasNext() {
+        fill();
+        if (pending.isEmpty() || emitted >= maxProducts) {
+            logThroughput();
+            return false;
+        }
+        return true;
+    }
+    
+    @Override
+    public List<ProductCard> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more search results");
+        }
+        List<ProductCard> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && !pending.isEmpty() && emitted < maxProducts) {
+            batch.add(pending.pollFirst());
+            emitted++;
+        }
+        return Collections.unmodifiableList(batch);
+    }
+    
+    /**
+     * Log how many products were streamed and the throughput, once
+     */
+    void logThroughput() {
+        if (throughputLogged) {
+            return;
+        }
+        throughputLogged = true;
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        logger.info(String.format("Streamed %d products (%d duplicates dropped, %d loads) in %d ms: %.1f products/s",
+                emitted, duplicates, loads, elapsedMillis, emitted * 1000.0 / elapsedMillis));
+    }
+    
+    /**
+     * Read new cards until a full batch is pending or the results are exhausted
+     */
+    private void fill() {
+        while (pending.size() < batchSize && emitted + pending.size() < maxProducts && !exhausted) {
+            List<ProductCard> cards = page.snapshotFrom(nextCardPosition);
+            for (ProductCard card : cards) {
+                if (seenProductIds.put(card.getProductId(), Boolean.TRUE) == null) {
+                    pending.addLast(card);
+                } else {
+                    duplicates++;
+                }
+            }
+            nextCardPosition += cards.size();
+            
+            if (pending.size() >= batchSize || emitted + pending.size() >= maxProducts) {
+                return;
+            }
+            if (loads >= maxLoads) {
+                exhausted = true;
+                return;
+            }
+            loads++;
+            int continueAt = page.loadMoreResults(nextCardPosition);
+            if (continueAt < 0) {
+                exhausted = true;
+            } else {
+                nextCardPosition = continueAt;
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -1,12 +1,23 @@
 package com.beymen.pages;
 
+import com.beymen.utils.ConfigReader;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Page Object for Search Results Page
@@ -14,8 +25,57 @@ import java.util.Random;
  */
 public class SearchResultsPage extends BasePage {
     
-    // Web Elements
-    @FindBy(css = ".m-productCard, .productCard, .product-card, .product-item, .product, [data-product], .productCard__wrapper, .product-list-item, .plp-product, .product-tile, .o-productList__item, .m-productCard__wrapper")
+    private static final String PRODUCT_CARD_SELECTOR = ".m-productCard, .productCard, .product-card, .product-item, .product, [data-product], .productCard__wrapper, .product-list-item, .plp-product, .product-tile, .o-productList__item, .m-productCard__wrapper";
+    
+    // Product types skipped when picking a random product, and types preferred among the rest
+    private static final String[] SKIPPED_PRODUCT_KEYWORDS = {"corset", "fitted", "blazer", "ceket", "pantolon", "jean"};
+    private static final String[] PREFERRED_PRODUCT_KEYWORDS = {"tshirt", "shirt", "bluz", "basic", "accessory", "bag", "çanta", "simple"};
+    
+    /**
+     * Script evaluated by the browser: arguments[0] is the card selector, arguments[1] the first card position
+     * to return and arguments[2] true to only count the cards
+     * Returns one plain object per outermost matched card, or the card count
+     */
+    private static final String SNAPSHOT_SCRIPT =
+            "var selector = arguments[0], fromIndex = arguments[1], countOnly = arguments[2], cards = [], position = 0;"
+            + "function textOf(root, selectors) {"
+            + "  for (var s = 0; s < selectors.length; s++) {"
+            + "    var e = root.querySelector(selectors[s]);"
+            + "    var text = e ? (e.innerText || e.textContent || '').trim() : '';"
+            + "    if (text) { return text; }"
+            + "  }"
+            + "  return '';"
+            + "}"
+            + "var nodes = document.querySelectorAll(selector);"
+            + "for (var i = 0; i < nodes.length; i++) {"
+            + "  var card = nodes[i];"
+            + "  if (card.parentElement && card.parentElement.closest(selector)) { continue; }"
+            + "  position++;"
+            + "  if (countOnly || position <= fromIndex) { continue; }"
+            + "  var link = card.closest('a[href]') || card.querySelector('a[href]');"
+            + "  var img = card.querySelector('img');"
+            + "  var title = textOf(card, ['.m-productCard__desc', '[class*=desc]', '[class*=name]', '[class*=title]']);"
+            + "  if (!title) { title = (card.innerText || '').split('\\n')[0]; }"
+            + "  cards.push({"
+            + "    index: position - 1,"
+            + "    id: card.getAttribute('data-id') || card.getAttribute('data-product-id') || card.getAttribute('data-sku') || '',"
+            + "    title: title,"
+            + "    brand: textOf(card, ['.m-productCard__title', '[class*=brand]']),"
+            + "    price: textOf(card, ['.m-productCard__newPrice', '[class*=newPrice]', '[class*=price]']),"
+            + "    href: link ? link.href : '',"
+            + "    image: img ? (img.currentSrc || img.src || img.getAttribute('data-src') || '') : ''"
+            + "  });"
+            + "}"
+            + "return countOnly ? position : cards;";
+    
+    // Returns the absolute URL of the next results page, or null
+    private static final String NEXT_PAGE_SCRIPT =
+            "var next = document.querySelector(\"a[rel='next'], link[rel='next'], .pagination .next a, a.next, "
+            + "a[aria-label*='Sonraki'], a[aria-label*='Next'], a[class*='next']\");"
+            + "return next ? next.href : null;";
+    
+    // Product cards for render checks; bulk reads go through snapshot()
+    @FindBy(css = PRODUCT_CARD_SELECTOR)
     private List<WebElement> productCards;
     
     @FindBy(css = ".search-result, .results-title, .o-productList__title, h1, .page-title")
@@ -35,12 +95,17 @@ public class SearchResultsPage extends BasePage {
      */
     public boolean areSearchResultsDisplayed() {
         try {
-            // Wait for page to load and try multiple selectors
-            Thread.sleep(2000); // Set to 2 seconds
+            // Continue as soon as the first product cards are rendered
+            boolean cardsRendered = waitOptionally("product cards to render",
+                    d -> !productCards.isEmpty(), scaledTimeout(Duration.ofSeconds(10)));
+            if (cardsRendered) {
+                // Lazy-loaded cards keep arriving after the first render
+                waitForDomStable(getDomQuietPeriod(), scaledTimeout(Duration.ofSeconds(5)));
+            }
             
             // Check if any products are displayed
-            if (productCards.size() > 0) {
-                logger.info("Found " + productCards.size() + " products");
+            if (cardsRendered) {
+                logger.info("Found " + snapshot().size() + " products");
                 return true;
             }
             
@@ -71,77 +136,116 @@ public class SearchResultsPage extends BasePage {
      * @return number of products found
      */
     public int getSearchResultsCount() {
-        return productCards.size();
+        return snapshot().size();
+    }
+    
+    /**
+     * Read every rendered product card in one script call
+     * Cards nested inside another matched card (wrappers) are reported once
+     * @return immutable list of product cards in page order
+     */
+    public List<ProductCard> snapshot() {
+        return snapshotFrom(0);
+    }
+    
+    /**
+     * Lazily walk all results, scrolling infinite-scroll lists and following pagination links
+     * Products are de-duplicated by id and handed out in batches; no WebElement is held between batches
+     * Crawl depth and batch size come from search.stream.* configuration
+     * @return stream of product batches
+     */
+    public Stream<List<ProductCard>> stream() {
+        SearchResultStream results = new SearchResultStream(this,
+                ConfigReader.getIntProperty("search.stream.batchSize", 24),
+                ConfigReader.getIntProperty("search.stream.maxLoads", 20),
+                ConfigReader.getIntProperty("search.stream.maxProducts", 1000),
+                ConfigReader.getIntProperty("search.stream.dedupWindow", 2000));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(results::logThroughput);
+    }
+    
+    /**
+     * Read rendered product cards starting at the given card position
+     * @param fromIndex position of the first card to return
+     * @return immutable list of product cards in page order
+     */
+    @SuppressWarnings("unchecked")
+    List<ProductCard> snapshotFrom(int fromIndex) {
+        List<Map<String, Object>> rawCards = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                .executeScript(SNAPSHOT_SCRIPT, PRODUCT_CARD_SELECTOR, fromIndex, false);
+        List<ProductCard> cards = new ArrayList<>();
+        if (rawCards != null) {
+            for (Map<String, Object> rawCard : rawCards) {
+                cards.add(ProductCard.fromScriptResult(rawCard));
+            }
+        }
+        return Collections.unmodifiableList(cards);
+    }
+    
+    /**
+     * Load more results: scroll to the bottom for infinite-scroll lists, else follow the next-page link
+     * @param renderedCount number of cards rendered before loading
+     * @return position to continue reading at: renderedCount on the same page, 0 on a new page, -1 if exhausted
+     */
+    int loadMoreResults(int renderedCount) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
+        boolean moreRendered = waitOptionally("more product cards to render", d -> getRenderedCardCount() > renderedCount,
+                Duration.ofSeconds(ConfigReader.getIntProperty("search.stream.scrollTimeoutSeconds", 5)));
+        if (moreRendered) {
+            return renderedCount;
+        }
+        
+        String nextPageUrl = (String) js.executeScript(NEXT_PAGE_SCRIPT);
+        if (nextPageUrl == null || nextPageUrl.isEmpty() || nextPageUrl.equals(driver.getCurrentUrl())) {
+            return -1;
+        }
+        driver.get(nextPageUrl);
+        logger.info("Opened next results page: " + nextPageUrl);
+        waitForPageToSettle();
+        return 0;
+    }
+    
+    /**
+     * Count rendered product cards without transferring their data
+     * @return number of outermost product cards
+     */
+    int getRenderedCardCount() {
+        return ((Number) ((JavascriptExecutor) driver)
+                .executeScript(SNAPSHOT_SCRIPT, PRODUCT_CARD_SELECTOR, 0, true)).intValue();
     }
     
     /**
      * Select a random product from search results
+     * Avoids products with complex sizing and prefers simple items, filtering the snapshot locally
      * @return ProductDetailPage
      */
     public ProductDetailPage selectRandomProduct() {
         try {
-            if (productCards.isEmpty()) {
+            List<ProductCard> cards = snapshot().stream()
+                    .filter(card -> !card.getHref().isEmpty())
+                    .collect(Collectors.toList());
+            if (cards.isEmpty()) {
                 throw new RuntimeException("No products found in search results");
             }
             
-            // Try to select a product that's more likely to work (avoid complex products)
-            WebElement selectedProduct = null;
-            Random random = new Random();
-            int maxAttempts = 5; // Try up to 5 different products
+            // Skip products that might have complex sizing (like corsets, fitted items)
+            List<ProductCard> simpleCards = cards.stream()
+                    .filter(card -> !card.matchesAny(SKIPPED_PRODUCT_KEYWORDS))
+                    .collect(Collectors.toList());
+            // Prefer simpler items like shirts, basic tops, accessories
+            List<ProductCard> preferredCards = simpleCards.stream()
+                    .filter(card -> card.matchesAny(PREFERRED_PRODUCT_KEYWORDS))
+                    .collect(Collectors.toList());
+            logger.info("Product snapshot: " + cards.size() + " cards, " + simpleCards.size() + " without complex sizing, "
+                    + preferredCards.size() + " preferred");
             
-            for (int attempt = 0; attempt < maxAttempts && selectedProduct == null; attempt++) {
-                int randomIndex = random.nextInt(productCards.size());
-                WebElement candidateProduct = productCards.get(randomIndex);
-                
-                // Check if this product might be simpler (less likely to have complex size requirements)
-                try {
-                    String productText = candidateProduct.getText().toLowerCase();
-                    String productClass = candidateProduct.getAttribute("class");
-                    
-                    // Skip products that might have complex sizing (like corsets, fitted items)
-                    if (productText.contains("corset") || productText.contains("fitted") || 
-                        productText.contains("blazer") || productText.contains("ceket") ||
-                        productText.contains("pantolon") || productText.contains("jean")) {
-                        logger.info("Skipping potentially complex product: " + productText);
-                        continue;
-                    }
-                    
-                    // Prefer simpler items like shirts, basic tops, accessories
-                    if (productText.contains("tshirt") || productText.contains("shirt") || 
-                        productText.contains("bluz") || productText.contains("basic") ||
-                        productText.contains("accessory") || productText.contains("bag") ||
-                        productText.contains("çanta") || productText.contains("simple")) {
-                        logger.info("Selected preferred simple product at index: " + randomIndex);
-                        selectedProduct = candidateProduct;
-                        break;
-                    }
-                    
-                    // If no preferred type found in max attempts, use any product
-                    if (attempt == maxAttempts - 1) {
-                        selectedProduct = candidateProduct;
-                        logger.info("Selected product (fallback) at index: " + randomIndex);
-                    }
-                    
-                } catch (Exception e) {
-                    logger.info("Error checking product details, continuing: " + e.getMessage());
-                    if (attempt == maxAttempts - 1) {
-                        selectedProduct = candidateProduct;
-                    }
-                }
-            }
+            List<ProductCard> candidates = !preferredCards.isEmpty() ? preferredCards
+                    : !simpleCards.isEmpty() ? simpleCards : cards;
+            ProductCard selectedProduct = candidates.get(new Random().nextInt(candidates.size()));
+            logger.info("Selected random product: " + selectedProduct);
             
-            if (selectedProduct == null) {
-                // Final fallback - just pick the first available product
-                selectedProduct = productCards.get(0);
-                logger.info("Selected first available product as final fallback");
-            }
-            
-            // Click on the selected product
-            scrollToElement(selectedProduct);
-            clickElement(selectedProduct);
-            logger.info("Selected random product at index: " + productCards.indexOf(selectedProduct));
-            
-            return new ProductDetailPage(driver);
+            return openProduct(selectedProduct);
         } catch (Exception e) {
             logger.error("Failed to select random product: " + e.getMessage());
             throw new RuntimeException("Could not select a product from search results");
@@ -154,15 +258,26 @@ public class SearchResultsPage extends BasePage {
      * @return ProductDetailPage
      */
     public ProductDetailPage selectProductByIndex(int index) {
-        if (index >= productCards.size()) {
+        List<ProductCard> cards = snapshot();
+        if (index >= cards.size()) {
             throw new IndexOutOfBoundsException("Product index out of range");
         }
         
-        WebElement product = productCards.get(index);
-        scrollToElement(product);
-        clickElement(product);
         logger.info("Selected product at index: " + index);
-        
+        return openProduct(cards.get(index));
+    }
+    
+    /**
+     * Open a product's detail page through its link instead of clicking the card
+     * @param card product card from snapshot()
+     * @return ProductDetailPage
+     */
+    public ProductDetailPage openProduct(ProductCard card) {
+        if (card.getHref().isEmpty()) {
+            throw new IllegalStateException("Product card has no link: " + card);
+        }
+        driver.get(card.getHref());
+        logger.info("Opened product page: " + card.getHref());
         return new ProductDetailPage(driver);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.beymen.pages;
+
+import org.openqa.selenium.WebElement;
+
+import java.util.Map;
+
+/**
+ * One size variant of a product as reported by the in-browser size scan
+ */
+public final class SizeOption {
+    
+    private final String label;
+    private final boolean inStock;
+    private final boolean selected;
+    private final WebElement element;
+    
+    /**
+     * Constructor
+     * @param label size label shown to the user (e.g. "M", "38")
+     * @param inStock false if the option is disabled or marked out of stock
+     * @param selected true if the option is already selected
+     * @param element clickable element of the option
+     */
+    public SizeOption(String label, boolean inStock, boolean selected, WebElement element) {
+        this.label = label;
+        this.inStock = inStock;
+        this.selected = selected;
+        this.element = element;
+    }
+    
+    /**
+     * Create an option from one entry returned by the size scan script
+     * @param values option values keyed by field name
+     * @return SizeOption
+     */
+    static SizeOption fromScriptResult(Map<String, Object> values) {
+        return new SizeOption(String.valueOf(values.get("label")), Boolean.TRUE.equals(values.get("inStock")),
+                Boolean.TRUE.equals(values.get("selected")), (WebElement) values.get("element"));
+    }
+    
+    /**
+     * Get size label
+     * @return label
+     */
+    public String getLabel() {
+        return label;
+    }
+    
+    /**
+     * Check if the size can be ordered
+     * @return true if in stock
+     */
+    public boolean isInStock() {
+        return inStock;
+    }
+    
+    /**
+     * Check if the size is currently selected
+     * @return true if selected
+     */
+    public boolean isSelected() {
+        return selected;
+    }
+    
+    /**
+     * Get clickable element of the option
+     * @return WebElement
+     */
+    public WebElement getElement() {
+        return element;
+    }
+    
+    @Override
+    public String toString() {
+        return "'" + label + "'" + (inStock ? "" : " (out of stock)") + (selected ? " (selected)" : "");
+    }
+} 
\ No newline at end of file
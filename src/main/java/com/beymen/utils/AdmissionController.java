@@ -0,0 +1,259 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Resource-aware admission control for parallel runs
+ * Sizes the worker count from cores and free memory, and holds back new browser sessions
+ * while the resident memory of this JVM and its browser processes is over budget
+ */
+public class AdmissionController {
+    
+    private static final Logger logger = LogManager.getLogger(AdmissionController.class);
+    
+    private static final AtomicInteger activeSessions = new AtomicInteger();
+    private static final AtomicInteger admittedCount = new AtomicInteger();
+    private static final AtomicInteger delayedCount = new AtomicInteger();
+    private static final AtomicLong admissionWaitNanos = new AtomicLong();
+    private static final AtomicLong maxAdmissionWaitNanos = new AtomicLong();
+    private static final AtomicLong peakRssMb = new AtomicLong();
+    private static final AtomicInteger peakSessions = new AtomicInteger();
+    private static final Map<String, AtomicLong> waitNanosByThread = new ConcurrentHashMap<>();
+    private static final Object admissionLock = new Object();
+    private static int startingSessions;
+    private static volatile int workerCount = 1;
+    private static volatile long budgetMb = -1;
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private AdmissionController() {
+    }
+    
+    /**
+     * Get the number of workers the machine can run: one per core, limited by how many browser sessions fit in free memory
+     * parallel.threads overrides the computed value when it is greater than zero
+     * @return worker count, at least 1
+     */
+    public static int recommendedWorkers() {
+        int configured = ConfigReader.getIntProperty("parallel.threads", 0);
+        if (configured > 0) {
+            return configured;
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        long availableMb = availableMemoryMb();
+        if (availableMb < 0) {
+            return Math.max(1, cores / 2);
+        }
+        long usableMb = availableMb - ConfigReader.getIntProperty("parallel.reservedMemoryMb", 1024);
+        long byMemory = usableMb / ConfigReader.getIntProperty("parallel.sessionMemoryMb", 600);
+        return (int) Math.max(1, Math.min(cores, byMemory));
+    }
+    
+    /**
+     * Set the worker count chosen for this run, so session pools can be sized to match
+     * @param workers worker count
+     */
+    public static void setWorkerCount(int workers) {
+        workerCount = Math.max(1, workers);
+    }
+    
+    /**
+     * Get the worker count chosen for this run
+     * @return worker count, 1 for serial runs
+     */
+    public static int getWorkerCount() {
+        return workerCount;
+    }
+    
+    /**
+     * Block until a new browser session fits in the RSS budget
+     * Sessions admitted but still starting have no RSS yet, so each counts as parallel.sessionMemoryMb until
+     * startupFinished() is called; otherwise a pool warming up several sessions at once would pass on the same low RSS.
+     * A session is always admitted when none is running, so the run cannot stall on its own baseline
+     * @throws IllegalStateException if no room is made within parallel.admission.timeoutSeconds
+     */
+    public static void acquire() {
+        long start = System.nanoTime();
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(ConfigReader.getIntProperty("parallel.admission.timeoutSeconds", 300));
+        long sessionMb = ConfigReader.getIntProperty("parallel.sessionMemoryMb", 600);
+        boolean delayed = false;
+        try {
+            while (true) {
+                long rssMb;
+                synchronized (admissionLock) {
+                    rssMb = currentRssMb();
+                    peakRssMb.accumulateAndGet(rssMb, Math::max);
+                    if (rssMb < 0 || activeSessions.get() == 0
+                            || rssMb + (startingSessions + 1) * sessionMb <= getBudgetMb()) {
+                        startingSessions++;
+                        peakSessions.accumulateAndGet(activeSessions.incrementAndGet(), Math::max);
+                        break;
+                    }
+                }
+                if (!delayed) {
+                    delayed = true;
+                    delayedCount.incrementAndGet();
+                    logger.info("Holding back new browser session: RSS " + rssMb + " MB + " + sessionMb
+                            + " MB over budget " + getBudgetMb() + " MB with " + activeSessions.get() + " session(s) running");
+                }
+                if (System.nanoTime() - start > timeoutNanos) {
+                    throw new IllegalStateException("No memory for a new browser session within "
+                            + TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) + " s (RSS " + rssMb + " MB, budget "
+                            + getBudgetMb() + " MB)");
+                }
+                Thread.sleep(ConfigReader.getIntProperty("parallel.admission.pollMillis", 500));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for session admission", e);
+        } finally {
+            long waited = System.nanoTime() - start;
+            waitNanosByThread.computeIfAbsent(Thread.currentThread().getName(), name -> new AtomicLong()).addAndGet(waited);
+            admissionWaitNanos.addAndGet(waited);
+            maxAdmissionWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+        admittedCount.incrementAndGet();
+    }
+    
+    /**
+     * Mark the startup of an admitted session as finished, successful or not, so its memory is measured from now on
+     */
+    public static void startupFinished() {
+        synchronized (admissionLock) {
+            startingSessions = Math.max(0, startingSessions - 1);
+        }
+    }
+    
+    /**
+     * Sample the current RSS into the peak, e.g. right before a session quits while it is still fully loaded
+     */
+    public static void sampleRss() {
+        peakRssMb.accumulateAndGet(currentRssMb(), Math::max);
+    }
+    
+    /**
+     * Give back the admission of a session that has quit
+     */
+    public static void release() {
+        activeSessions.updateAndGet(count -> Math.max(0, count - 1));
+    }
+    
+    /**
+     * Get the RSS budget: parallel.rss.budgetMb, or when 0, the RSS at first use plus the memory that was available then
+     * minus the reserve
+     * @return budget in MB
+     */
+    public static long getBudgetMb() {
+        if (budgetMb < 0) {
+            synchronized (AdmissionController.class) {
+                if (budgetMb < 0) {
+                    long configured = ConfigReader.getIntProperty("parallel.rss.budgetMb", 0);
+                    long availableMb = availableMemoryMb();
+                    if (configured > 0) {
+                        budgetMb = configured;
+                    } else if (availableMb < 0) {
+                        budgetMb = Long.MAX_VALUE;
+                    } else {
+                        budgetMb = Math.max(0, currentRssMb()) + availableMb
+                                - ConfigReader.getIntProperty("parallel.reservedMemoryMb", 1024);
+                    }
+                    logger.info("Browser session RSS budget: " + (budgetMb == Long.MAX_VALUE ? "unlimited" : budgetMb + " MB"));
+                }
+            }
+        }
+        return budgetMb;
+    }
+    
+    /**
+     * Get the resident memory of this JVM and all of its descendant processes (drivers and browsers)
+     * @return RSS in MB, or -1 if it cannot be read on this platform
+     */
+    public static long currentRssMb() {
+        long rssKb = readRssKb(ProcessHandle.current().pid());
+        if (rssKb < 0) {
+            return -1;
+        }
+        List<ProcessHandle> descendants = ProcessHandle.current().descendants().collect(Collectors.toList());
+        for (ProcessHandle process : descendants) {
+            rssKb += Math.max(0, readRssKb(process.pid()));
+        }
+        return rssKb / 1024;
+    }
+    
+    /**
+     * Get time each thread spent waiting for session admission
+     * @param threadName worker thread name
+     * @return wait in milliseconds, 0 if the thread never waited
+     */
+    public static long getWaitMillis(String threadName) {
+        AtomicLong waited = waitNanosByThread.get(threadName);
+        return waited == null ? 0 : TimeUnit.NANOSECONDS.toMillis(waited.get());
+    }
+    
+    /**
+     * Get a one-line summary of admission metrics
+     * @return metrics summary
+     */
+    public static String getMetricsSummary() {
+        int admitted = admittedCount.get();
+        return String.format("Session admission: workers=%d, admitted=%d, delayed=%d, avgWait=%d ms, maxWait=%d ms, "
+                        + "peakRss=%d MB, peakSessions=%d, rssPerConcurrentSession=%s, budget=%s",
+                workerCount, admitted, delayedCount.get(),
+                admitted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(admissionWaitNanos.get() / admitted),
+                TimeUnit.NANOSECONDS.toMillis(maxAdmissionWaitNanos.get()), peakRssMb.get(), peakSessions.get(),
+                peakSessions.get() == 0 ? "n/a" : peakRssMb.get() / peakSessions.get() + " MB",
+                budgetMb < 0 || budgetMb == Long.MAX_VALUE ? "unlimited" : budgetMb + " MB");
+    }
+    
+    /**
+     * Read VmRSS of a process from /proc (Linux)
+     * @param pid process id
+     * @return RSS in KB, or -1 if not available
+     */
+    private static long readRssKb(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Get memory available for new processes from /proc/meminfo
+     * Other systems report -1, which turns the memory budget off; the OS bean's free memory call is
+     * deprecated on the Java 11 release level this project builds for
+     * @return available memory in MB, or -1 if unknown
+     */
+    private static long availableMemoryMb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/meminfo"))) {
+                if (line.startsWith("MemAvailable:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.debug("/proc/meminfo not readable: " + e.getMessage());
+        }
+        return -1;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Browser session teardown off the test thread
+ * Sessions are quit on a small bounded executor; a watchdog force-kills the driver process tree when quit hangs,
+ * and browser processes that outlive their driver are killed and counted as zombies.
+ * drain() waits for all pending teardowns at suite end
+ */
+public class AsyncTeardown {
+    
+    private static final Logger logger = LogManager.getLogger(AsyncTeardown.class);
+    
+    private static final AtomicInteger threadIndex = new AtomicInteger();
+    private static final ThreadPoolExecutor executor = createExecutor();
+    private static final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "driver-teardown-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Process trees of teardowns still in flight, force-killed if drain() times out
+    private static final Set<List<ProcessHandle>> inFlight = ConcurrentHashMap.newKeySet();
+    private static final Object drainLock = new Object();
+    private static int pending;
+    
+    // Teardown metrics
+    private static final AtomicInteger submittedCount = new AtomicInteger();
+    private static final AtomicInteger completedCount = new AtomicInteger();
+    private static final AtomicInteger failedCount = new AtomicInteger();
+    private static final AtomicInteger timedOutCount = new AtomicInteger();
+    private static final AtomicInteger zombieCount = new AtomicInteger();
+    private static final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private static final AtomicLong quitNanos = new AtomicLong();
+    private static final AtomicLong maxQuitNanos = new AtomicLong();
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private AsyncTeardown() {
+    }
+    
+    /**
+     * Check if asynchronous teardown is enabled
+     * @return true if teardown.async.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("teardown.async.enabled", false);
+    }
+    
+    /**
+     * Quit a session in the background and give back its admission once its processes are gone
+     * Runs on the calling thread when async teardown is disabled or the queue is full
+     * @param driver WebDriver to quit
+     * @param driverProcess driver service process (chromedriver, geckodriver, msedgedriver), or null if unknown
+     * @param profileDir tmpfs profile directory deleted after the quit, or null if none
+     */
+    public static void submit(WebDriver driver, ProcessHandle driverProcess, Path profileDir) {
+        submittedCount.incrementAndGet();
+        synchronized (drainLock) {
+            pending++;
+        }
+        Runnable task = () -> teardown(driver, driverProcess, profileDir);
+        if (!isEnabled() || executor.isShutdown()) {
+            task.run();
+            return;
+        }
+        executor.execute(task);
+        maxQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+    }
+    
+    /**
+     * Wait for pending teardowns, force-killing whatever is left after teardown.drainTimeoutSeconds
+     * Logs the teardown metrics; safe to call more than once
+     */
+    public static void drain() {
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(ConfigReader.getIntProperty("teardown.drainTimeoutSeconds", 60));
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (drainLock) {
+            try {
+                while (pending > 0 && System.currentTimeMillis() < deadline) {
+                    drainLock.wait(Math.max(1, deadline - System.currentTimeMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (pending > 0) {
+                logger.warn(pending + " driver teardown(s) still running after " + timeoutMillis + " ms, force-killing");
+                for (List<ProcessHandle> processes : inFlight) {
+                    timedOutCount.incrementAndGet();
+                    forceKill(processes);
+                }
+            }
+        }
+        logger.info(getMetricsSummary());
+    }
+    
+    /**
+     * Get a one-line summary of teardown metrics
+     * @return metrics summary
+     */
+    public static String getMetricsSummary() {
+        int completed = completedCount.get();
+        int quits = completed + failedCount.get();
+        return String.format("Driver teardown: submitted=%d, completed=%d, failed=%d, avgQuit=%d ms, maxQuit=%d ms, "
+                        + "forceKilled=%d, zombiesKilled=%d, maxQueueDepth=%d",
+                submittedCount.get(), completed, failedCount.get(),
+                quits == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(quitNanos.get() / quits),
+                TimeUnit.NANOSECONDS.toMillis(maxQuitNanos.get()), timedOutCount.get(), zombieCount.get(),
+                maxQueueDepth.get());
+    }
+    
+    /**
+     * Quit a session under the watchdog, reap browser processes left behind by the driver, then delete its profile
+     * @param driver WebDriver to quit
+     * @param driverProcess driver service process, or null if unknown
+     * @param profileDir tmpfs profile directory, or null if none
+     */
+    private static void teardown(WebDriver driver, ProcessHandle driverProcess, Path profileDir) {
+        // Snapshot the tree first: browsers left behind are re-parented and no longer descendants of the driver
+        List<ProcessHandle> processes = driverProcess == null ? Collections.emptyList()
+                : Stream.concat(Stream.of(driverProcess), driverProcess.descendants())
+                .collect(Collectors.toList());
+        inFlight.add(processes);
+        long start = System.nanoTime();
+        ScheduledFuture<?> timeout = watchdog.schedule(() -> {
+            timedOutCount.incrementAndGet();
+            logger.warn("Driver quit exceeded " + ConfigReader.getIntProperty("teardown.quitTimeoutSeconds", 20)
+                    + " s, force-killing " + processes.size() + " process(es)");
+            forceKill(processes);
+        }, ConfigReader.getIntProperty("teardown.quitTimeoutSeconds", 20), TimeUnit.SECONDS);
+        try {
+            driver.quit();
+            completedCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedCount.incrementAndGet();
+            logger.warn("Driver quit failed: " + e.getMessage());
+        } finally {
+            timeout.cancel(false);
+            long elapsed = System.nanoTime() - start;
+            quitNanos.addAndGet(elapsed);
+            maxQuitNanos.accumulateAndGet(elapsed, Math::max);
+            reapZombies(processes);
+            inFlight.remove(processes);
+            if (profileDir != null) {
+                LaunchProfile.deleteProfileDir(profileDir);
+            }
+            AdmissionController.release();
+            synchronized (drainLock) {
+                pending--;
+                drainLock.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Give processes of a quit session teardown.graceMillis to exit and kill the ones still alive
+     * @param processes driver process and its browser processes
+     */
+    private static void reapZombies(List<ProcessHandle> processes) {
+        long deadline = System.currentTimeMillis() + ConfigReader.getIntProperty("teardown.graceMillis", 2000);
+        for (ProcessHandle process : processes) {
+            try {
+                process.onExit().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // Still alive after the grace period
+            }
+        }
+        int zombies = forceKill(processes);
+        if (zombies > 0) {
+            zombieCount.addAndGet(zombies);
+            logger.warn("Killed " + zombies + " browser process(es) that outlived their driver");
+        }
+    }
+    
+    /**
+     * Kill the processes of a session that are still alive
+     * @param processes driver process and its browser processes
+     * @return number of processes killed
+     */
+    private static int forceKill(List<ProcessHandle> processes) {
+        List<ProcessHandle> alive = processes.stream().filter(ProcessHandle::isAlive).collect(Collectors.toList());
+        alive.forEach(ProcessHandle::destroyForcibly);
+        return alive.size();
+    }
+    
+    /**
+     * Create the bounded teardown executor
+     * A full queue runs the teardown on the test thread, which slows tests down instead of piling up browsers
+     * @return executor with teardown.threads daemon threads and a queue of teardown.queueSize
+     */
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = Math.max(1, ConfigReader.getIntProperty("teardown.threads", 2));
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, ConfigReader.getIntProperty("teardown.queueSize", 16))),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "driver-teardown-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+} 
\ No newline at end of file
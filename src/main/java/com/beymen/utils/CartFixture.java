@@ -0,0 +1,182 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds and clears the cart through the site's basket endpoints instead of the UI
+ * Requests carry the browser session's cookies, and cookies set by the server are copied back
+ * into the browser, so the cart UI shows the seeded items
+ */
+public class CartFixture implements AutoCloseable {
+    
+    private static final Logger logger = LogManager.getLogger(CartFixture.class);
+    private static final Json JSON = new Json();
+    
+    private final URI baseUri;
+    private final Supplier<Set<Cookie>> cookieSource;
+    private final Consumer<Cookie> cookieSink;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final List<String> seededSkus = new ArrayList<>();
+    
+    /**
+     * Constructor
+     * @param baseUri site root the endpoint paths are resolved against
+     * @param cookieSource supplies the session cookies sent with each request
+     * @param cookieSink receives cookies set by the server
+     */
+    public CartFixture(URI baseUri, Supplier<Set<Cookie>> cookieSource, Consumer<Cookie> cookieSink) {
+        this.baseUri = baseUri;
+        this.cookieSource = cookieSource;
+        this.cookieSink = cookieSink;
+        this.timeout = Duration.ofSeconds(ConfigReader.getIntProperty("cart.api.timeoutSeconds", 10));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+    
+    /**
+     * Create a fixture bound to the current thread's browser session
+     * The browser should already be on the site so its session cookies exist and server cookies can be stored
+     * @return CartFixture
+     */
+    public static CartFixture forCurrentSession() {
+        WebDriver driver = DriverManager.getDriver();
+        if (driver == null) {
+            throw new IllegalStateException("No WebDriver session on this thread");
+        }
+        return new CartFixture(URI.create(ConfigReader.getProperty("cart.api.baseUrl", "https://www.beymen.com")),
+                () -> driver.manage().getCookies(),
+                cookie -> driver.manage().addCookie(cookie));
+    }
+    
+    /**
+     * Add a product variant to the cart
+     * @param sku product variant identifier
+     * @param quantity quantity to add
+     */
+    public void addItem(String sku, int quantity) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(ConfigReader.getProperty("cart.api.skuField", "sku"), sku);
+        body.put(ConfigReader.getProperty("cart.api.quantityField", "quantity"), quantity);
+        send(ConfigReader.getProperty("cart.api.addPath", "/tr/cart/add"), body);
+        seededSkus.add(sku);
+        logger.info("Seeded cart over API: " + quantity + " x " + sku);
+    }
+    
+    /**
+     * Remove a product variant from the cart
+     * @param sku product variant identifier
+     */
+    public void removeItem(String sku) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(ConfigReader.getProperty("cart.api.skuField", "sku"), sku);
+        send(ConfigReader.getProperty("cart.api.removePath", "/tr/cart/remove"), body);
+        seededSkus.remove(sku);
+        logger.info("Removed from cart over API: " + sku);
+    }
+    
+    /**
+     * Remove every item this fixture added
+     */
+    @Override
+    public void close() {
+        for (String sku : new ArrayList<>(seededSkus)) {
+            try {
+                removeItem(sku);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to remove seeded item " + sku + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * POST a JSON body to a basket endpoint with the session cookies
+     * @param path endpoint path
+     * @param body request body
+     * @return response body
+     */
+    private String send(String path, Map<String, Object> body) {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("X-Requested-With", "XMLHttpRequest")
+                .header("User-Agent", DriverManager.USER_AGENT)
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.toJson(body)));
+        String cookies = cookieHeader();
+        if (!cookies.isEmpty()) {
+            requestBuilder.header("Cookie", cookies);
+        }
+        HttpRequest request = requestBuilder.build();
+        
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cart request to " + path + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during cart request to " + path, e);
+        }
+        logger.info("Cart API " + path + " -> " + response.statusCode() + " in "
+                + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+        
+        storeResponseCookies(response);
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            String responseBody = response.body();
+            throw new IllegalStateException("Cart request to " + path + " returned " + response.statusCode() + ": "
+                    + (responseBody.length() > 200 ? responseBody.substring(0, 200) : responseBody));
+        }
+        return response.body();
+    }
+    
+    private String cookieHeader() {
+        return cookieSource.get().stream()
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+    }
+    
+    /**
+     * Copy cookies set by the server (e.g. a new basket id) into the browser session
+     * @param response HTTP response
+     */
+    private void storeResponseCookies(HttpResponse<String> response) {
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            for (HttpCookie httpCookie : HttpCookie.parse(header)) {
+                Cookie cookie = new Cookie.Builder(httpCookie.getName(), httpCookie.getValue())
+                        .path(httpCookie.getPath() == null ? "/" : httpCookie.getPath())
+                        .isSecure(httpCookie.getSecure())
+                        .isHttpOnly(httpCookie.isHttpOnly())
+                        .build();
+                try {
+                    cookieSink.accept(cookie);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not store cookie " + cookie.getName() + " in the browser: " + e.getMessage());
+                }
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebDriver command instrumentation
+ * Records type, latency and calling page method of every command sent through a decorated driver,
+ * and logs a per-test summary with a latency histogram
+ */
+public class CommandMetrics implements WebDriverListener {
+    
+    private static final Logger logger = LogManager.getLogger(CommandMetrics.class);
+    private static final CommandMetrics INSTANCE = new CommandMetrics();
+    
+    // Upper bounds (ms) of latency histogram buckets; the last bucket is open-ended
+    private static final long[] HISTOGRAM_BOUNDS = {10, 50, 100, 250, 500, 1000, 5000};
+    
+    // Calls that only return a local helper object and never reach the browser
+    private static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList(
+            "manage", "switchTo", "navigate", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"));
+    
+    private static final String PAGE_PACKAGE = "com.beymen.pages.";
+    private static final String PROJECT_PACKAGE = "com.beymen.";
+    
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    
+    private final ThreadLocal<Deque<Long>> callStartTimes = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<TestStats> testStats = ThreadLocal.withInitial(TestStats::new);
+    
+    /**
+     * Private constructor - use getListener()
+     */
+    private CommandMetrics() {
+    }
+    
+    /**
+     * Get the shared listener instance
+     * @return CommandMetrics listener
+     */
+    public static CommandMetrics getListener() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Check if command instrumentation is enabled
+     * @return true if drivers should be decorated
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("driver.instrumentation.enabled", true);
+    }
+    
+    /**
+     * Start collecting metrics for a new test on the current thread
+     */
+    public static void startTest() {
+        INSTANCE.testStats.set(new TestStats());
+    }
+    
+    /**
+     * Log the summary of commands sent by the current thread since startTest() and reset
+     * @param testName name of the finished test
+     */
+    public static void reportTest(String testName) {
+        TestStats stats = INSTANCE.testStats.get();
+        INSTANCE.testStats.remove();
+        if (stats.totalCount == 0) {
+            return;
+        }
+        logger.info(stats.summary(testName));
+    }
+    
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            callStartTimes.get().push(System.nanoTime());
+        }
+    }
+    
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        record(method, false);
+    }
+    
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        record(method, true);
+    }
+    
+    /**
+     * Record a finished command for the current thread
+     * @param method invoked WebDriver API method
+     * @param failed true if the command threw
+     */
+    private void record(Method method, boolean failed) {
+        if (LOCAL_CALLS.contains(method.getName())) {
+            return;
+        }
+        Deque<Long> starts = callStartTimes.get();
+        if (starts.isEmpty()) {
+            return;
+        }
+        long latencyNanos = System.nanoTime() - starts.pop();
+        String commandType = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        testStats.get().add(commandType, findCaller(), TimeUnit.NANOSECONDS.toMillis(latencyNanos), failed);
+    }
+    
+    /**
+     * Find the page-object method that issued the command, e.g. CartPage.removeFirstItem
+     * Falls back to the first project frame (BasePage helpers, tests, utils)
+     * @return caller description
+     */
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> {
+            String fallback = "unknown";
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith(PROJECT_PACKAGE) || className.equals(CommandMetrics.class.getName())) {
+                    continue;
+                }
+                String methodName = frame.getMethodName();
+                if (methodName.startsWith("lambda$")) {
+                    // lambda$waitForCartUrl$3 -> waitForCartUrl
+                    methodName = methodName.split("\\$")[1];
+                }
+                String caller = className.substring(className.lastIndexOf('.') + 1) + "." + methodName;
+                if (className.startsWith(PAGE_PACKAGE) && !className.endsWith(".BasePage")) {
+                    return caller;
+                }
+                if (fallback.equals("unknown")) {
+                    fallback = caller;
+                }
+            }
+            return fallback;
+        });
+    }
+    
+    /**
+     * Command counters of one test
+     */
+    private static class TestStats {
+        private final Map<String, Aggregate> byCommand = new LinkedHashMap<>();
+        private final Map<String, Aggregate> byCaller = new LinkedHashMap<>();
+        private final long[] histogram = new long[HISTOGRAM_BOUNDS.length + 1];
+        private long totalCount;
+        private long totalMillis;
+        private long errorCount;
+        
+        void add(String commandType, String caller, long latencyMillis, boolean failed) {
+            byCommand.computeIfAbsent(commandType, key -> new Aggregate()).add(latencyMillis);
+            byCaller.computeIfAbsent(caller, key -> new Aggregate()).add(latencyMillis);
+            int bucket = 0;
+            while (bucket < HISTOGRAM_BOUNDS.length && latencyMillis >= HISTOGRAM_BOUNDS[bucket]) {
+                bucket++;
+            }
+            histogram[bucket]++;
+            totalCount++;
+            totalMillis += latencyMillis;
+            if (failed) {
+                errorCount++;
+            }
+        }
+        
+        String summary(String testName) {
+            StringBuilder summary = new StringBuilder();
+            summary.append("WebDriver commands for ").append(testName).append(": ")
+                    .append(totalCount).append(" commands, ").append(totalMillis).append(" ms, ")
+                    .append(errorCount).append(" errors");
+            
+            summary.append("\n  Latency histogram:");
+            for (int i = 0; i < histogram.length; i++) {
+                String label = i < HISTOGRAM_BOUNDS.length
+                        ? "<" + HISTOGRAM_BOUNDS[i] + " ms"
+                        : ">=" + HISTOGRAM_BOUNDS[HISTOGRAM_BOUNDS.length - 1] + " ms";
+                summary.append(String.format("%n    %-10s %6d", label, histogram[i]));
+            }
+            
+            summary.append("\n  By command type:");
+            appendAggregates(summary, byCommand);
+            summary.append("\n  By calling method:");
+            appendAggregates(summary, byCaller);
+            return summary.toString();
+        }
+        
+        private static void appendAggregates(StringBuilder summary, Map<String, Aggregate> aggregates) {
+            aggregates.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, Aggregate> e) -> e.getValue().totalMillis).reversed())
+                    .forEach(e -> summary.append(String.format("%n    %-45s count=%5d total=%7d ms avg=%5d ms max=%6d ms",
+                            e.getKey(), e.getValue().count, e.getValue().totalMillis,
+                            e.getValue().totalMillis / e.getValue().count, e.getValue().maxMillis)));
+        }
+    }
+    
+    /**
+     * Count, total and max latency of a group of commands
+     */
+    private static class Aggregate {
+        private long count;
+        private long totalMillis;
+        private long maxMillis;
+        
+        void add(long latencyMillis) {
+            count++;
+            totalMillis += latencyMillis;
+            maxMillis = Math.max(maxMillis, latencyMillis);
+        }
+    }
+} 
\ No newline at end of file
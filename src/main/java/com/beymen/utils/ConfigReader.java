@@ -6,41 +6,227 @@ import org.apache.logging.log4j.Logger;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * Configuration Reader utility class
- * Reads properties from configuration file
+ * Resolves properties in layers, each overriding the previous one:
+ * classpath resource, optional external file, environment variables, then -D system properties
  */
 public class ConfigReader {
     
     private static final Logger logger = LogManager.getLogger(ConfigReader.class);
-    private static Properties properties;
+    private static final String CONFIG_RESOURCE = "test-data.properties";
     private static final String CONFIG_FILE_PATH = "src/test/resources/test-data.properties";
+    private static final String ENV_PREFIX = "BEYMEN_";
+    
+    // Keys validated at startup and parsed as typed values
+    private static final Pattern INT_KEY = Pattern.compile(
+            ".*(Seconds|Millis|Mb|Window|[sS]ize|[tT]hreads|maxReuses|maxLoads|maxProducts|warmUp)$|(.*\\.)?timeout\\.(implicit|explicit|pageload)$");
+    private static final Pattern BOOLEAN_KEY = Pattern.compile(".*\\.(enabled|strict|headless)$");
+    private static final Pattern SECRET_KEY = Pattern.compile("(?i).*(password|secret|token|apikey).*");
+    
+    private static final Properties properties = new Properties();
+    private static final Map<String, String> sources = new ConcurrentHashMap<>();
+    private static final Map<String, Object> typedCache = new ConcurrentHashMap<>();
+    private static final Set<String> knownPrefixes = new TreeSet<>();
+    private static final Map<String, String> deferredEnvironment = new ConcurrentHashMap<>();
+    // Variables read directly rather than as configuration keys
+    private static final Set<String> SELECTOR_VARIABLES = Set.of(ENV_PREFIX + "CONFIG_FILE", ENV_PREFIX + "PROFILE",
+            ENV_PREFIX + "SHARD");
+    private static volatile PerformanceProfile profile;
     
     /**
-     * Static block to load properties file once
+     * Static block to resolve the configuration layers once
      */
     static {
         try {
-            properties = new Properties();
-            InputStream inputStream = new FileInputStream(CONFIG_FILE_PATH);
-            properties.load(inputStream);
-            inputStream.close();
+            loadBaseLayer();
+            loadExternalFile();
+            applyOverrides();
+            validate();
+            logEffectiveConfig();
             logger.info("Configuration file loaded successfully");
+            getProfile();
         } catch (IOException e) {
             logger.error("Failed to load configuration file: " + e.getMessage());
             throw new RuntimeException("Failed to load configuration file", e);
         }
     }
     
+    /**
+     * Load the classpath resource, falling back to the source tree when run from the repo root without test resources
+     */
+    private static void loadBaseLayer() throws IOException {
+        InputStream inputStream = ConfigReader.class.getClassLoader().getResourceAsStream(CONFIG_RESOURCE);
+        String source = "classpath:" + CONFIG_RESOURCE;
+        if (inputStream == null) {
+            inputStream = new FileInputStream(CONFIG_FILE_PATH);
+            source = CONFIG_FILE_PATH;
+        }
+        try (InputStream in = inputStream) {
+            load(in, source);
+        }
+    }
+    
+    /**
+     * Load the optional external file named by -Dconfig.file or BEYMEN_CONFIG_FILE
+     */
+    private static void loadExternalFile() throws IOException {
+        String location = System.getProperty("config.file", System.getenv(ENV_PREFIX + "CONFIG_FILE"));
+        if (location == null || location.trim().isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(location.trim());
+        if (!Files.isRegularFile(path)) {
+            throw new IOException("External configuration file not found: " + path.toAbsolutePath());
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            load(in, path.toString());
+        }
+    }
+    
+    private static void load(InputStream in, String source) throws IOException {
+        Properties layer = new Properties();
+        layer.load(in);
+        for (String key : layer.stringPropertyNames()) {
+            set(key, layer.getProperty(key), source);
+        }
+    }
+    
+    /**
+     * Apply environment variables (BEYMEN_TIMEOUT_EXPLICIT for timeout.explicit) and then -D properties
+     * Keys defined by the file layers, or starting with one of their first segments (driver., search., ...),
+     * can be overridden, so keys the code reads with a default are covered while unrelated JVM and OS
+     * settings are never picked up. An environment name cannot be mapped back to such a key unambiguously,
+     * so those variables are applied when the code first reads the matching key
+     */
+    private static void applyOverrides() {
+        List<String> keys = new ArrayList<>(properties.stringPropertyNames());
+        for (String key : keys) {
+            knownPrefixes.add(key.substring(0, key.indexOf('.') + 1));
+        }
+        knownPrefixes.remove("");
+        
+        Set<String> matchedVariables = new HashSet<>();
+        for (String key : keys) {
+            String value = System.getenv(toEnvironmentName(key));
+            if (value != null) {
+                set(key, value, "env " + toEnvironmentName(key));
+                matchedVariables.add(toEnvironmentName(key));
+            }
+        }
+        for (Map.Entry<String, String> variable : new TreeMap<>(System.getenv()).entrySet()) {
+            String name = variable.getKey();
+            if (!name.startsWith(ENV_PREFIX) || matchedVariables.contains(name) || SELECTOR_VARIABLES.contains(name)) {
+                continue;
+            }
+            if (knownPrefixes.stream().anyMatch(prefix -> name.startsWith(toEnvironmentName(prefix)))) {
+                deferredEnvironment.put(name, variable.getValue());
+            } else {
+                logger.warn("Unrecognised environment variable " + name + ": no configuration key starts with "
+                        + name.substring(ENV_PREFIX.length()).split("_")[0].toLowerCase() + ".");
+            }
+        }
+        
+        for (String key : new TreeSet<>(System.getProperties().stringPropertyNames())) {
+            if (properties.containsKey(key) || knownPrefixes.stream().anyMatch(key::startsWith)) {
+                set(key, System.getProperty(key), "-D" + key);
+            }
+        }
+    }
+    
+    /**
+     * Get a property value, applying a deferred environment variable on the first read of its key
+     * @param key property key
+     * @return property value, or null if not defined
+     */
+    private static String lookup(String key) {
+        String value = properties.getProperty(key);
+        if (value == null && !deferredEnvironment.isEmpty()) {
+            String name = toEnvironmentName(key);
+            String deferred = deferredEnvironment.remove(name);
+            if (deferred != null) {
+                set(key, deferred, "env " + name);
+                logger.info("Applied environment variable " + name + " to " + key);
+                value = properties.getProperty(key);
+            }
+        }
+        return value;
+    }
+    
+    private static void set(String key, String value, String source) {
+        properties.setProperty(key, value.trim());
+        sources.put(key, source);
+    }
+    
+    /**
+     * Get environment variable name that overrides a key
+     * @param key property key
+     * @return environment variable name
+     */
+    static String toEnvironmentName(String key) {
+        return ENV_PREFIX + key.toUpperCase().replaceAll("[^A-Z0-9]", "_");
+    }
+    
+    /**
+     * Check every typed key parses, so a bad override fails at startup instead of in the middle of a test
+     */
+    private static void validate() {
+        List<String> errors = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            if (INT_KEY.matcher(key).matches()) {
+                try {
+                    typedCache.put(key, Integer.parseInt(value));
+                } catch (NumberFormatException e) {
+                    errors.add(key + "='" + value + "' is not an integer (" + sources.get(key) + ")");
+                }
+            } else if (BOOLEAN_KEY.matcher(key).matches()) {
+                if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                    errors.add(key + "='" + value + "' is not a boolean (" + sources.get(key) + ")");
+                } else {
+                    typedCache.put(key, Boolean.parseBoolean(value));
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration: " + String.join("; ", errors));
+        }
+    }
+    
+    /**
+     * Log the effective configuration once, with the layer each value came from
+     */
+    private static void logEffectiveConfig() {
+        StringBuilder dump = new StringBuilder("Effective configuration:");
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            String value = SECRET_KEY.matcher(key).matches() ? "****" : properties.getProperty(key);
+            dump.append(System.lineSeparator()).append("  ").append(key).append('=').append(value)
+                    .append("  [").append(sources.get(key)).append(']');
+        }
+        logger.info(dump.toString());
+    }
+    
     /**
      * Get property value by key
      * @param key property key
      * @return property value
      */
     public static String getProperty(String key) {
-        String value = properties.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
             logger.warn("Property not found: " + key);
         }
@@ -54,16 +240,22 @@ public class ConfigReader {
      * @return property value or default
      */
     public static String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = lookup(key);
+        return value == null ? defaultValue : value;
     }
     
     /**
      * Get integer property value
      * @param key property key
      * @return integer value
+     * @throws IllegalStateException if the property is missing or not an integer
      */
     public static int getIntProperty(String key) {
-        return Integer.parseInt(getProperty(key));
+        Integer value = parseInt(key);
+        if (value == null) {
+            throw new IllegalStateException("Required property not found: " + key);
+        }
+        return value;
     }
     
     /**
@@ -74,4 +266,94 @@ public class ConfigReader {
     public static boolean getBooleanProperty(String key) {
         return Boolean.parseBoolean(getProperty(key));
     }
+    
+    /**
+     * Get integer property value with default
+     * @param key property key
+     * @param defaultValue default value if property not found
+     * @return integer value or default
+     * @throws IllegalStateException if the property is present but not an integer
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        Integer value = parseInt(key);
+        return value == null ? defaultValue : value;
+    }
+    
+    /**
+     * Get boolean property value with default
+     * @param key property key
+     * @param defaultValue default value if property not found
+     * @return boolean value or default
+     */
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        Object cached = typedCache.get(key);
+        if (cached instanceof Boolean) {
+            return (Boolean) cached;
+        }
+        String value = lookup(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        Boolean parsed = Boolean.parseBoolean(value);
+        typedCache.put(key, parsed);
+        return parsed;
+    }
+    
+    /**
+     * Parse an integer property once and cache the typed value
+     * @param key property key
+     * @return integer value, or null if the property is missing
+     */
+    private static Integer parseInt(String key) {
+        Object cached = typedCache.get(key);
+        if (cached instanceof Integer) {
+            return (Integer) cached;
+        }
+        String value = lookup(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            Integer parsed = Integer.parseInt(value);
+            typedCache.put(key, parsed);
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Property " + key + "='" + value + "' is not an integer ("
+                    + sources.get(key) + ")", e);
+        }
+    }
+    
+    /**
+     * Get the layer a property value came from
+     * @param key property key
+     * @return source description, or null if the property is not defined
+     */
+    public static String getSource(String key) {
+        return sources.get(key);
+    }
+    
+    /**
+     * Get the active performance profile, resolved once per JVM
+     * Selected by the "profile" system property, then the BEYMEN_PROFILE environment variable,
+     * then profile.active in the configuration
+     * @return immutable PerformanceProfile
+     */
+    public static PerformanceProfile getProfile() {
+        PerformanceProfile resolved = profile;
+        if (resolved == null) {
+            synchronized (ConfigReader.class) {
+                resolved = profile;
+                if (resolved == null) {
+                    String name = System.getProperty("profile", System.getenv("BEYMEN_PROFILE"));
+                    if (name == null || name.trim().isEmpty()) {
+                        name = properties.getProperty("profile.active", PerformanceProfile.DEFAULT_NAME);
+                    }
+                    resolved = PerformanceProfile.resolve(name.trim(), properties);
+                    profile = resolved;
+                    logger.info("Performance profile resolved: " + resolved);
+                }
+            }
+        }
+        return resolved;
+    }
 } 
\ No newline at end of file
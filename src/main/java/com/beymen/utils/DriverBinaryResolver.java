@@ -0,0 +1,199 @@
+package com.beymen.utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resolves browser driver binaries once per JVM
+ * Order: driver system property already set, pinned local driver directory, then WebDriverManager
+ * under a file lock shared by forked JVMs. Offline mode never touches the network and falls back to
+ * a driver already in the WebDriverManager cache
+ */
+public class DriverBinaryResolver {
+    
+    private static final Logger logger = LogManager.getLogger(DriverBinaryResolver.class);
+    private static final Map<String, String> resolvedPaths = new ConcurrentHashMap<>();
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private DriverBinaryResolver() {
+    }
+    
+    /**
+     * Resolve the driver binary for a browser and publish it through the Selenium driver system property
+     * Later calls for the same browser return the cached path without any I/O
+     * @param browserName browser name (chrome, firefox, edge)
+     * @return absolute driver path
+     */
+    public static String resolve(String browserName) {
+        return resolvedPaths.computeIfAbsent(browserName.toLowerCase(), DriverBinaryResolver::resolveOnce);
+    }
+    
+    /**
+     * Check if offline mode is enabled
+     * @return true if driver.binary.offline is set
+     */
+    public static boolean isOffline() {
+        return ConfigReader.getBooleanProperty("driver.binary.offline", false);
+    }
+    
+    private static String resolveOnce(String browserName) {
+        long start = System.nanoTime();
+        String systemProperty = systemPropertyFor(browserName);
+        
+        String path = System.getProperty(systemProperty);
+        String source = "-D" + systemProperty;
+        if (path == null || !Files.isExecutable(Paths.get(path))) {
+            Path pinned = findPinned(browserName);
+            Path cached = pinned == null && isOffline() ? findCached(browserName) : null;
+            if (pinned != null) {
+                path = pinned.toString();
+                source = "pinned directory";
+            } else if (cached != null) {
+                path = cached.toString();
+                source = "driver cache";
+            } else if (isOffline()) {
+                throw new IllegalStateException("Offline mode: no " + executableName(browserName) + " in "
+                        + ConfigReader.getProperty("driver.binary.dir", "") + " or "
+                        + ConfigReader.getProperty("driver.binary.cacheDir", ".cache/drivers")
+                        + " and " + systemProperty + " is not set");
+            } else {
+                path = downloadLocked(browserName);
+                source = "WebDriverManager";
+            }
+        }
+        
+        System.setProperty(systemProperty, path);
+        logger.info("Driver binary for " + browserName + " resolved from " + source + " in "
+                + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms: " + path);
+        return path;
+    }
+    
+    /**
+     * Find an executable driver in the pinned driver directory
+     * @param browserName browser name
+     * @return driver path, or null if none is pinned
+     */
+    private static Path findPinned(String browserName) {
+        String dir = ConfigReader.getProperty("driver.binary.dir", "");
+        if (dir.isEmpty()) {
+            return null;
+        }
+        Path candidate = Paths.get(dir, executableName(browserName)).toAbsolutePath();
+        return Files.isExecutable(candidate) ? candidate : null;
+    }
+    
+    /**
+     * Find a driver WebDriverManager downloaded into the driver cache on an earlier online run
+     * Honours driver.binary.version.&lt;browser&gt; when set; otherwise the most recently downloaded driver wins
+     * @param browserName browser name
+     * @return cached driver path, or null if the cache has none
+     */
+    private static Path findCached(String browserName) {
+        Path cacheDir = Paths.get(ConfigReader.getProperty("driver.binary.cacheDir", ".cache/drivers")).toAbsolutePath();
+        if (!Files.isDirectory(cacheDir)) {
+            return null;
+        }
+        String executable = executableName(browserName);
+        String version = ConfigReader.getProperty("driver.binary.version." + browserName, "");
+        try (Stream<Path> paths = Files.walk(cacheDir, 6)) {
+            return paths.filter(candidate -> candidate.getFileName().toString().equals(executable))
+                    .filter(Files::isExecutable)
+                    .filter(candidate -> version.isEmpty() || candidate.toString().contains(version))
+                    .max(Comparator.comparingLong(DriverBinaryResolver::lastModified))
+                    .orElse(null);
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Could not scan driver cache " + cacheDir + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+    
+    /**
+     * Resolve with WebDriverManager while holding a file lock, so forked JVMs starting together
+     * do not download into the same cache at once; the second JVM finds the first one's download
+     * @param browserName browser name
+     * @return downloaded driver path
+     */
+    private static synchronized String downloadLocked(String browserName) {
+        Path cacheDir = Paths.get(ConfigReader.getProperty("driver.binary.cacheDir", ".cache/drivers")).toAbsolutePath();
+        try {
+            Files.createDirectories(cacheDir);
+            try (FileChannel channel = FileChannel.open(cacheDir.resolve(".resolve.lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    WebDriverManager manager = WebDriverManager.getInstance(browserName)
+                            .cachePath(cacheDir.toString())
+                            .resolutionCachePath(cacheDir.toString())
+                            .ttl(ConfigReader.getIntProperty("driver.binary.ttlSeconds", 86400));
+                    String version = ConfigReader.getProperty("driver.binary.version." + browserName, "");
+                    if (!version.isEmpty()) {
+                        manager.driverVersion(version);
+                    }
+                    manager.setup();
+                    return manager.getDownloadedDriverPath();
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not lock driver cache " + cacheDir + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private static String systemPropertyFor(String browserName) {
+        switch (browserName) {
+            case "chrome":
+                return "webdriver.chrome.driver";
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browserName);
+        }
+    }
+    
+    private static String executableName(String browserName) {
+        String name;
+        switch (browserName) {
+            case "chrome":
+                name = "chromedriver";
+                break;
+            case "firefox":
+                name = "geckodriver";
+                break;
+            case "edge":
+                name = "msedgedriver";
+                break;
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browserName);
+        }
+        return WINDOWS ? name + ".exe" : name;
+    }
+} 
\ No newline at end of file
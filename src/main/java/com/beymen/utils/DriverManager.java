@@ -1,15 +1,28 @@
 package com.beymen.utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.service.DriverService;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebDriver Manager class following Singleton pattern
@@ -19,8 +32,22 @@ public class DriverManager {
     
     private static final Logger logger = LogManager.getLogger(DriverManager.class);
     private static ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
-    private static final int IMPLICIT_WAIT_TIME = 10;
-    private static final int PAGE_LOAD_TIMEOUT = 30;
+    private static ThreadLocal<DriverPool> leasePoolThreadLocal = new ThreadLocal<>();
+    private static final Map<String, DriverPool> driverPools = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, NetworkMonitor> networkMonitors = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, RequestBlocker> requestBlockers = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, ProcessHandle> driverProcesses = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, Path> profileDirs = Collections.synchronizedMap(new WeakHashMap<>());
+    // Desktop Chrome user agent used by browser sessions and by direct API calls of the same session
+    public static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0.0.0 Safari/537.36";
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            shutdownPools();
+            AsyncTeardown.drain();
+            LaunchProfile.deleteProfileDirs();
+        }, "driver-pool-shutdown"));
+    }
     
     /**
      * Private constructor to prevent instantiation
@@ -36,43 +63,94 @@ public class DriverManager {
         return driverThreadLocal.get();
     }
     
+    /**
+     * Get implicit wait configured on every session by the active performance profile
+     * Zero in shared browser mode, where one context's implicit wait would stall the others
+     * Used to restore the implicit wait after fast-fail probes
+     * @return implicit wait duration
+     */
+    public static Duration getImplicitWait() {
+        return SharedBrowser.isEnabled() ? Duration.ZERO : ConfigReader.getProfile().getImplicitWait();
+    }
+    
+    /**
+     * Get the CDP network monitor of the current thread's session
+     * Only available on the Chrome path
+     * @return NetworkMonitor or null if the session has no DevTools support
+     */
+    public static NetworkMonitor getNetworkMonitor() {
+        WebDriver driver = driverThreadLocal.get();
+        return driver == null ? null : networkMonitors.get(driver);
+    }
+    
+    /**
+     * Get the third-party request blocker of the current thread's session
+     * Only available on the Chrome path
+     * @return RequestBlocker or null if blocking is disabled or not supported
+     */
+    public static RequestBlocker getRequestBlocker() {
+        WebDriver driver = driverThreadLocal.get();
+        return driver == null ? null : requestBlockers.get(driver);
+    }
+    
     /**
      * Initialize WebDriver based on browser type
+     * Borrows a warm session from the pool when driver.pool.enabled is set
      * @param browserName browser name (chrome, firefox, edge)
      */
     public static void initializeDriver(String browserName) {
         if (driverThreadLocal.get() == null) {
             WebDriver driver;
+            DriverPool pool = null;
             
-            switch (browserName.toLowerCase()) {
-                case "chrome":
-                    WebDriverManager.chromedriver().setup();
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
-                    chromeOptions.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0.0.0 Safari/537.36");
-                    driver = new ChromeDriver(chromeOptions);
-                    break;
-                    
-                case "firefox":
-                    WebDriverManager.firefoxdriver().setup();
-                    driver = new FirefoxDriver();
-                    break;
-                    
-                case "edge":
-                    WebDriverManager.edgedriver().setup();
-                    driver = new EdgeDriver();
-                    break;
-                    
-                default:
-                    throw new IllegalArgumentException("Browser not supported: " + browserName);
+            if (SharedBrowser.isEnabled()) {
+                if (!browserName.equalsIgnoreCase("chrome")) {
+                    throw new IllegalArgumentException("Shared browser mode supports chrome only, not: " + browserName);
+                }
+                driver = SharedBrowser.get(() -> createDriver(browserName)).newContext();
+                logger.info("WebDriver bound to a new browser context of the shared Chrome");
+            } else if (isPoolEnabled()) {
+                pool = getPool(browserName);
+                driver = pool.borrow();
+                logger.info("WebDriver borrowed from pool for browser: " + browserName);
+            } else {
+                driver = createDriver(browserName);
+                logger.info("WebDriver initialized for browser: " + browserName);
             }
             
-            driver.manage().window().maximize();
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT_TIME));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(PAGE_LOAD_TIMEOUT));
-            
+            try {
+                // Seed consent cookies and popup storage keys before the first navigation
+                SessionPreparer.prepare(driver);
+                // Restore the saved storage state the test asked for, on top of the seeding
+                StorageState.prepare(driver);
+            } catch (RuntimeException e) {
+                // The session is not stored yet, so nothing else would give it back
+                discardSession(driver, pool);
+                throw e;
+            }
             driverThreadLocal.set(driver);
-            logger.info("WebDriver initialized for browser: " + browserName);
+            if (pool != null) {
+                leasePoolThreadLocal.set(pool);
+            }
+        }
+    }
+    
+    /**
+     * Give back a session that could not be prepared for a test
+     * @param driver WebDriver instance
+     * @param pool pool the session was borrowed from, or null
+     */
+    private static void discardSession(WebDriver driver, DriverPool pool) {
+        try {
+            if (SharedBrowser.isContextHandle(driver)) {
+                driver.quit();
+            } else if (pool != null) {
+                pool.release(driver);
+            } else {
+                quitSession(driver);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not give back session after failed preparation: " + e.getMessage());
         }
     }
     
@@ -85,13 +163,249 @@ public class DriverManager {
     
     /**
      * Quit WebDriver and remove from ThreadLocal
+     * Pooled sessions are reset and returned to the pool instead of being quit
      */
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
-            driver.quit();
+            DriverPool pool = leasePoolThreadLocal.get();
             driverThreadLocal.remove();
-            logger.info("WebDriver quit successfully");
+            leasePoolThreadLocal.remove();
+            
+            if (SharedBrowser.isContextHandle(driver)) {
+                driver.quit();
+                logger.info("Browser context disposed");
+            } else if (pool != null) {
+                pool.release(driver);
+                logger.info("WebDriver returned to pool");
+            } else {
+                quitSession(driver);
+                logger.info("WebDriver quit successfully");
+            }
         }
     }
+    
+    /**
+     * Quit a browser session and give back its admission
+     * The quit runs on the teardown executor, so the calling test thread moves on immediately
+     * @param driver WebDriver to quit
+     */
+    static void quitSession(WebDriver driver) {
+        AdmissionController.sampleRss();
+        AsyncTeardown.submit(driver, driverProcesses.remove(driver), profileDirs.remove(driver));
+    }
+    
+    /**
+     * Quit all pooled sessions and the shared browser and log their metrics
+     * Safe to call more than once
+     */
+    public static void shutdownPools() {
+        SharedBrowser.shutdown();
+        for (String browserName : driverPools.keySet()) {
+            DriverPool pool = driverPools.remove(browserName);
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+    
+    /**
+     * Check if pooled session mode is enabled
+     * @return true if sessions are borrowed from a pool
+     */
+    public static boolean isPoolEnabled() {
+        return ConfigReader.getBooleanProperty("driver.pool.enabled", false);
+    }
+    
+    /**
+     * Get or create the session pool for a browser
+     * @param browserName browser name
+     * @return DriverPool for the browser
+     */
+    private static DriverPool getPool(String browserName) {
+        // One session per parallel worker, so workers do not queue on the pool
+        int size = Math.max(ConfigReader.getIntProperty("driver.pool.size", 1), AdmissionController.getWorkerCount());
+        DriverPool pool = driverPools.computeIfAbsent(browserName.toLowerCase(), name ->
+                new DriverPool(name, () -> createDriver(name), size,
+                        ConfigReader.getIntProperty("driver.pool.maxReuses", 20),
+                        ConfigReader.getIntProperty("driver.pool.borrowTimeoutSeconds", 120) * 1000L));
+        // Outside computeIfAbsent: startups can wait for admission, which must not hold the map's bin lock
+        pool.warmUp(ConfigReader.getIntProperty("driver.pool.warmUp", size));
+        return pool;
+    }
+    
+    /**
+     * Start a new configured browser session
+     * @param browserName browser name (chrome, firefox, edge)
+     * @return new WebDriver instance
+     */
+    private static WebDriver createDriver(String browserName) {
+        // Wait until the session fits in the memory budget of parallel runs
+        AdmissionController.acquire();
+        try {
+            return startDriver(browserName);
+        } catch (RuntimeException e) {
+            AdmissionController.release();
+            throw e;
+        } finally {
+            AdmissionController.startupFinished();
+        }
+    }
+    
+    /**
+     * Quit a browser that failed while being configured and delete its profile directory
+     * @param driver WebDriver to quit
+     * @param profileDir tmpfs profile directory, or null if none
+     */
+    private static void discardStartedDriver(WebDriver driver, Path profileDir) {
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            logger.warn("Could not quit browser after failed start: " + e.getMessage());
+        }
+        if (profileDir != null) {
+            LaunchProfile.deleteProfileDir(profileDir);
+        }
+    }
+    
+    /**
+     * Launch a browser with the active launch and performance profiles
+     * @param browserName browser name (chrome, firefox, edge)
+     * @return new WebDriver instance
+     */
+    private static WebDriver startDriver(String browserName) {
+        WebDriver driver;
+        DriverService service;
+        PerformanceProfile profile = ConfigReader.getProfile();
+        boolean lean = LaunchProfile.isEnabled();
+        Path profileDir = null;
+        long start = System.nanoTime();
+        
+        try {
+            switch (browserName.toLowerCase()) {
+                case "chrome":
+                    DriverBinaryResolver.resolve("chrome");
+                    ChromeOptions chromeOptions = new ChromeOptions();
+                    chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
+                    chromeOptions.addArguments("--user-agent=" + USER_AGENT);
+                    // A shared browser must not block every context on one page load; contexts wait for their own
+                    chromeOptions.setPageLoadStrategy(SharedBrowser.isEnabled() ? PageLoadStrategy.NONE
+                            : profile.getPageLoadStrategy());
+                    if (profile.isHeadless()) {
+                        chromeOptions.addArguments("--headless=new");
+                    }
+                    if (lean) {
+                        profileDir = LaunchProfile.apply(chromeOptions, "chrome");
+                    }
+                    ChromeDriverService chromeService = ChromeDriverService.createDefaultService();
+                    service = chromeService;
+                    driver = new ChromeDriver(chromeService, chromeOptions);
+                    break;
+                
+                case "firefox":
+                    DriverBinaryResolver.resolve("firefox");
+                    FirefoxOptions firefoxOptions = new FirefoxOptions();
+                    firefoxOptions.setPageLoadStrategy(profile.getPageLoadStrategy());
+                    if (profile.isHeadless()) {
+                        firefoxOptions.addArguments("-headless");
+                    }
+                    if (lean) {
+                        profileDir = LaunchProfile.apply(firefoxOptions);
+                    }
+                    GeckoDriverService firefoxService = GeckoDriverService.createDefaultService();
+                    service = firefoxService;
+                    driver = new FirefoxDriver(firefoxService, firefoxOptions);
+                    break;
+                
+                case "edge":
+                    DriverBinaryResolver.resolve("edge");
+                    EdgeOptions edgeOptions = new EdgeOptions();
+                    edgeOptions.setPageLoadStrategy(profile.getPageLoadStrategy());
+                    if (profile.isHeadless()) {
+                        edgeOptions.addArguments("--headless=new");
+                    }
+                    if (lean) {
+                        profileDir = LaunchProfile.apply(edgeOptions, "edge");
+                    }
+                    EdgeDriverService edgeService = EdgeDriverService.createDefaultService();
+                    service = edgeService;
+                    driver = new EdgeDriver(edgeService, edgeOptions);
+                    break;
+                
+                default:
+                    throw new IllegalArgumentException("Browser not supported: " + browserName);
+            }
+        } catch (RuntimeException e) {
+            // The browser did not start, so its profile directory is not used by anyone
+            if (profileDir != null) {
+                LaunchProfile.deleteProfileDir(profileDir);
+            }
+            throw e;
+        }
+        
+        NetworkMonitor networkMonitor;
+        RequestBlocker requestBlocker;
+        try {
+            if (lean) {
+                // Fixed viewport so layouts are the same headed and headless
+                driver.manage().window().setSize(LaunchProfile.getViewport());
+            } else {
+                driver.manage().window().maximize();
+            }
+            driver.manage().timeouts().implicitlyWait(getImplicitWait());
+            driver.manage().timeouts().pageLoadTimeout(profile.getPageLoadTimeout());
+            logger.info("Browser cold start: " + browserName + " (lean=" + lean + ", headless=" + profile.isHeadless()
+                    + ", strategy=" + profile.getPageLoadStrategy() + ") in "
+                    + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+            
+            // Track in-flight requests over CDP so pages can wait for network idle (Chrome only)
+            // A shared browser's CDP session is bound to its first tab, so contexts fall back to DOM stability
+            boolean perSessionCdp = !SharedBrowser.isEnabled();
+            networkMonitor = perSessionCdp && ConfigReader.getBooleanProperty("wait.network.enabled", true)
+                    ? NetworkMonitor.attach(driver) : null;
+            
+            // Block trackers, analytics, chat widgets and media the tests never check (Chrome only)
+            requestBlocker = perSessionCdp && RequestBlocker.isEnabled() ? RequestBlocker.attach(driver) : null;
+            
+            // Count and time every wire-protocol command per test and calling page method
+            if (CommandMetrics.isEnabled()) {
+                driver = new EventFiringDecorator<WebDriver>(CommandMetrics.getListener()).decorate(driver);
+            }
+        } catch (RuntimeException e) {
+            // The browser is running but not handed out yet, so nothing else would quit it
+            discardStartedDriver(driver, profileDir);
+            throw e;
+        }
+        
+        ProcessHandle driverProcess = findDriverProcess(service);
+        if (driverProcess != null) {
+            driverProcesses.put(driver, driverProcess);
+        }
+        if (profileDir != null) {
+            profileDirs.put(driver, profileDir);
+        }
+        if (networkMonitor != null) {
+            networkMonitors.put(driver, networkMonitor);
+        }
+        if (requestBlocker != null) {
+            requestBlockers.put(driver, requestBlocker);
+        }
+        return driver;
+    }
+    
+    /**
+     * Find the driver service process of a session among the JVM's child processes by its port argument
+     * Lets teardown force-kill the driver and its browsers when quit hangs
+     * @param service driver service the session was started with
+     * @return driver process, or null if it cannot be identified on this platform
+     */
+    private static ProcessHandle findDriverProcess(DriverService service) {
+        String portArgument = "--port=" + service.getUrl().getPort();
+        return ProcessHandle.current().children()
+                .filter(process -> process.info().arguments()
+                        .map(arguments -> Arrays.asList(arguments).contains(portArgument))
+                        .orElse(process.info().commandLine().map(line -> line.contains(portArgument)).orElse(false)))
+                .findFirst()
+                .orElse(null);
+    }
 } 
\ No newline at end of file
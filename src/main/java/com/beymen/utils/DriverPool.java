@@ -0,0 +1,364 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool of pre-started WebDriver sessions
+ * Sessions are lent to test threads and reset on return instead of being quit
+ */
+public class DriverPool {
+    
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+    
+    private final String browserName;
+    private final Supplier<WebDriver> driverFactory;
+    private final int maxSize;
+    private final int maxReuses;
+    private final long borrowTimeoutMillis;
+    
+    private final LinkedBlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    private volatile boolean shutdown;
+    private final AtomicBoolean warmedUp = new AtomicBoolean();
+    
+    // Pool metrics
+    private final AtomicInteger borrowCount = new AtomicInteger();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final AtomicInteger resetCount = new AtomicInteger();
+    private final AtomicLong resetNanos = new AtomicLong();
+    private final AtomicInteger recycledCount = new AtomicInteger();
+    private final AtomicInteger healthCheckFailures = new AtomicInteger();
+    
+    /**
+     * Constructor
+     * @param browserName browser the pooled sessions are started for
+     * @param driverFactory factory that starts a new configured session
+     * @param maxSize maximum number of live sessions
+     * @param maxReuses number of tests a session may serve before it is recycled
+     * @param borrowTimeoutMillis maximum time a test thread waits for a free session
+     */
+    public DriverPool(String browserName, Supplier<WebDriver> driverFactory, int maxSize, int maxReuses,
+                      long borrowTimeoutMillis) {
+        if (maxSize < 1 || maxReuses < 1) {
+            throw new IllegalArgumentException("Pool size and max reuses must be positive");
+        }
+        this.browserName = browserName;
+        this.driverFactory = driverFactory;
+        this.maxSize = maxSize;
+        this.maxReuses = maxReuses;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+    
+    /**
+     * Start sessions in parallel until the pool holds the requested number of idle sessions
+     * Only the first call starts sessions. Startups run on their own threads, since they can block
+     * in admission control for a long time
+     * @param count number of sessions to pre-start
+     */
+    public void warmUp(int count) {
+        if (count < 1 || !warmedUp.compareAndSet(false, true)) {
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(count, maxSize), runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-warmup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> startups = new ArrayList<>();
+            for (int i = 0; i < count && reserveSlot(); i++) {
+                startups.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        idleSessions.offer(new PooledSession(driverFactory.get()));
+                    } catch (RuntimeException e) {
+                        liveSessions.decrementAndGet();
+                        logger.error("Failed to pre-start " + browserName + " session: " + e.getMessage());
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(startups.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+        logger.info("Driver pool warmed up with " + idleSessions.size() + " " + browserName + " session(s)");
+    }
+    
+    /**
+     * Borrow a healthy session, waiting for one to be returned if the pool is exhausted
+     * @return WebDriver lent to the calling thread
+     */
+    public WebDriver borrow() {
+        if (shutdown) {
+            throw new IllegalStateException("Driver pool is shut down");
+        }
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                PooledSession session = idleSessions.pollFirst();
+                if (session == null && reserveSlot()) {
+                    try {
+                        session = new PooledSession(driverFactory.get());
+                    } catch (RuntimeException e) {
+                        liveSessions.decrementAndGet();
+                        throw e;
+                    }
+                }
+                if (session == null) {
+                    long remaining = borrowTimeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    session = remaining > 0 ? idleSessions.pollFirst(remaining, TimeUnit.MILLISECONDS) : null;
+                    if (session == null) {
+                        throw new IllegalStateException("No " + browserName + " session became available within "
+                                + borrowTimeoutMillis + " ms");
+                    }
+                }
+                
+                if (isHealthy(session.driver)) {
+                    leasedSessions.put(session.driver, session);
+                    return session.driver;
+                }
+                healthCheckFailures.incrementAndGet();
+                logger.warn("Discarding unhealthy pooled session");
+                discard(session);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pooled session", e);
+        } finally {
+            long waited = System.nanoTime() - start;
+            borrowCount.incrementAndGet();
+            borrowWaitNanos.addAndGet(waited);
+            maxBorrowWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+    
+    /**
+     * Return a session to the pool, resetting it or recycling it when it is worn out
+     * @param driver WebDriver previously obtained from borrow()
+     */
+    public void release(WebDriver driver) {
+        PooledSession session = leasedSessions.remove(driver);
+        if (session == null) {
+            logger.warn("Released driver does not belong to the pool, quitting it");
+            DriverManager.quitSession(driver);
+            return;
+        }
+        
+        session.uses++;
+        if (shutdown || session.uses >= maxReuses) {
+            recycledCount.incrementAndGet();
+            logger.info("Recycling pooled session after " + session.uses + " use(s)");
+            discard(session);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean resetSucceeded = reset(driver);
+        resetCount.incrementAndGet();
+        resetNanos.addAndGet(System.nanoTime() - start);
+        
+        if (resetSucceeded) {
+            idleSessions.offerFirst(session);
+        } else {
+            recycledCount.incrementAndGet();
+            logger.warn("Session reset failed, recycling pooled session");
+            discard(session);
+        }
+    }
+    
+    /**
+     * Quit every idle session and log the pool metrics
+     * Leased sessions are quit when they are released
+     */
+    public void shutdown() {
+        shutdown = true;
+        PooledSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            discard(session);
+        }
+        logger.info(getMetricsSummary());
+    }
+    
+    /**
+     * Get a one-line summary of pool metrics
+     * @return metrics summary
+     */
+    public String getMetricsSummary() {
+        int borrows = borrowCount.get();
+        int resets = resetCount.get();
+        return String.format("Driver pool [%s] metrics: borrows=%d, avgBorrowWait=%d ms, maxBorrowWait=%d ms, "
+                        + "resets=%d, avgReset=%d ms, recycled=%d, healthCheckFailures=%d",
+                browserName, borrows,
+                borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(borrowWaitNanos.get() / borrows),
+                TimeUnit.NANOSECONDS.toMillis(maxBorrowWaitNanos.get()),
+                resets,
+                resets == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(resetNanos.get() / resets),
+                recycledCount.get(), healthCheckFailures.get());
+    }
+    
+    /**
+     * Get browser name of the pooled sessions
+     * @return browser name
+     */
+    public String getBrowserName() {
+        return browserName;
+    }
+    
+    /**
+     * Reserve a slot for a new session if the pool is below its maximum size
+     * @return true if a slot was reserved
+     */
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = liveSessions.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!liveSessions.compareAndSet(current, current + 1));
+        return true;
+    }
+    
+    /**
+     * Check that the browser still answers commands
+     * @param driver WebDriver to check
+     * @return true if the session is usable
+     */
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            logger.warn("Pooled session health check failed: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Bring a session back to a clean state: single tab, no cookies, no web storage, blank page
+     * Chromium sessions are cleared over DevTools for every origin their tabs visited; the WebDriver calls
+     * below only reach the current page's origin and remain the fallback for other browsers
+     * @param driver WebDriver to reset
+     * @return true if reset succeeded
+     */
+    private boolean reset(WebDriver driver) {
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String keepHandle = handles.iterator().next();
+            Set<String> origins = new TreeSet<>();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                collectVisitedOrigins(driver, origins);
+                if (!handle.equals(keepHandle)) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(keepHandle);
+            
+            if (driver instanceof HasCdp) {
+                clearBrowserData((HasCdp) driver, origins);
+            }
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to reset pooled session: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Add the http(s) origins in the current tab's navigation history (Chromium only)
+     * @param driver WebDriver on the tab to inspect
+     * @param origins set receiving scheme://host[:port] origins
+     */
+    @SuppressWarnings("unchecked")
+    private void collectVisitedOrigins(WebDriver driver, Set<String> origins) {
+        if (!(driver instanceof HasCdp)) {
+            return;
+        }
+        Map<String, Object> history = ((HasCdp) driver).executeCdpCommand("Page.getNavigationHistory",
+                Collections.emptyMap());
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) history.getOrDefault("entries",
+                Collections.emptyList());
+        for (Map<String, Object> entry : entries) {
+            try {
+                URI url = URI.create(String.valueOf(entry.get("url")));
+                if ("http".equals(url.getScheme()) || "https".equals(url.getScheme())) {
+                    origins.add(url.getScheme() + "://" + url.getHost() + (url.getPort() < 0 ? "" : ":" + url.getPort()));
+                }
+            } catch (IllegalArgumentException e) {
+                logger.debug("Skipping unparsable history URL: " + entry.get("url"));
+            }
+        }
+    }
+    
+    /**
+     * Clear cookies of every domain and the storage of each visited origin over DevTools
+     * @param driver Chromium session
+     * @param origins origins the session's tabs visited
+     */
+    private void clearBrowserData(HasCdp driver, Set<String> origins) {
+        driver.executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        for (String origin : origins) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("origin", origin);
+            params.put("storageTypes", "all");
+            driver.executeCdpCommand("Storage.clearDataForOrigin", params);
+        }
+        logger.debug("Cleared cookies and storage of " + origins.size() + " origin(s) over DevTools");
+    }
+    
+    /**
+     * Quit a session and free its slot
+     * @param session session to discard
+     */
+    private void discard(PooledSession session) {
+        try {
+            DriverManager.quitSession(session.driver);
+        } catch (Exception e) {
+            logger.warn("Failed to quit pooled session: " + e.getMessage());
+        } finally {
+            liveSessions.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Pooled session with its usage counter
+     */
+    private static class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+        
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Lean browser launch profile
+ * Turns off browser features a test never needs, fixes the viewport and optionally blocks images
+ * and keeps the browser profile on tmpfs. Headless mode and page-load strategy come from the PerformanceProfile
+ */
+public class LaunchProfile {
+    
+    private static final Logger logger = LogManager.getLogger(LaunchProfile.class);
+    // Profile directories not deleted yet; normally removed when their session quits, the rest at shutdown
+    private static final List<Path> profileDirs = new CopyOnWriteArrayList<>();
+    
+    // Chromium switches for background work, sync and UI a test session never uses
+    private static final String[] LEAN_CHROMIUM_ARGUMENTS = {
+            "--disable-extensions",
+            "--disable-gpu",
+            "--disable-background-networking",
+            "--disable-sync",
+            "--disable-translate",
+            "--disable-features=Translate,OptimizationHints,MediaRouter,AutofillServerCommunication",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--no-first-run",
+            "--no-default-browser-check",
+            "--metrics-recording-only",
+            "--mute-audio"
+    };
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private LaunchProfile() {
+    }
+    
+    /**
+     * Check if the lean launch profile is enabled
+     * @return true if browser.lean.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("browser.lean.enabled", false);
+    }
+    
+    /**
+     * Get the fixed viewport used instead of maximizing the window
+     * @return viewport size from browser.viewport (WIDTHxHEIGHT)
+     */
+    public static Dimension getViewport() {
+        String viewport = ConfigReader.getProperty("browser.viewport", "1920x1080");
+        String[] parts = viewport.toLowerCase().split("x");
+        if (parts.length != 2) {
+            throw new IllegalStateException("browser.viewport must be WIDTHxHEIGHT but was: " + viewport);
+        }
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+    
+    /**
+     * Apply the lean profile to Chrome or Edge options
+     * @param options Chromium options
+     * @param browserName browser name, used for the profile directory name
+     * @return tmpfs profile directory of the session, or null if the default location is used
+     */
+    public static Path apply(ChromiumOptions<?> options, String browserName) {
+        Dimension viewport = getViewport();
+        options.addArguments(LEAN_CHROMIUM_ARGUMENTS);
+        options.addArguments("--window-size=" + viewport.getWidth() + "," + viewport.getHeight());
+        
+        if (ConfigReader.getBooleanProperty("browser.lean.blockImages", false)) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        
+        Path profileDir = createTmpfsProfileDir(browserName);
+        if (profileDir != null) {
+            options.addArguments("--user-data-dir=" + profileDir);
+        }
+        return profileDir;
+    }
+    
+    /**
+     * Apply the lean profile to Firefox options
+     * @param options Firefox options
+     * @return tmpfs profile directory of the session, or null if the default location is used
+     */
+    public static Path apply(FirefoxOptions options) {
+        Dimension viewport = getViewport();
+        options.addArguments("-width", String.valueOf(viewport.getWidth()), "-height", String.valueOf(viewport.getHeight()));
+        
+        options.addPreference("app.update.enabled", false);
+        options.addPreference("browser.shell.checkDefaultBrowser", false);
+        options.addPreference("datareporting.healthreport.uploadEnabled", false);
+        options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+        options.addPreference("extensions.update.enabled", false);
+        options.addPreference("browser.translations.enable", false);
+        options.addPreference("network.prefetch-next", false);
+        options.addPreference("layers.acceleration.disabled", true);
+        if (ConfigReader.getBooleanProperty("browser.lean.blockImages", false)) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        
+        Path profileDir = createTmpfsProfileDir("firefox");
+        if (profileDir != null) {
+            options.addArguments("-profile", profileDir.toString());
+        }
+        return profileDir;
+    }
+    
+    /**
+     * Create a browser profile directory on tmpfs when browser.lean.tmpfsDir exists
+     * @param browserName browser name
+     * @return profile directory, or null to let the browser use its default location
+     */
+    private static Path createTmpfsProfileDir(String browserName) {
+        String tmpfsDir = ConfigReader.getProperty("browser.lean.tmpfsDir", "");
+        if (tmpfsDir.isEmpty()) {
+            return null;
+        }
+        Path root = Paths.get(tmpfsDir);
+        if (!Files.isDirectory(root) || !Files.isWritable(root)) {
+            logger.warn("tmpfs directory " + root + " is not available, using the default profile location");
+            return null;
+        }
+        try {
+            Path profileDir = Files.createTempDirectory(root, "beymen-" + browserName + "-");
+            profileDirs.add(profileDir);
+            return profileDir;
+        } catch (IOException e) {
+            logger.warn("Could not create profile directory in " + root + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Delete the tmpfs profile directory of a session
+     * Called once the session's browser processes are gone, so a long run does not fill the tmpfs
+     * @param profileDir profile directory returned by apply
+     */
+    public static void deleteProfileDir(Path profileDir) {
+        try (Stream<Path> paths = Files.walk(profileDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            logger.warn("Could not delete profile directory " + profileDir + ": " + e.getMessage());
+        }
+        profileDirs.remove(profileDir);
+    }
+    
+    /**
+     * Delete every tmpfs profile directory still left in this JVM
+     * Called at shutdown after all sessions have quit
+     */
+    public static void deleteProfileDirs() {
+        profileDirs.forEach(LaunchProfile::deleteProfileDir);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Self-learning registry of fallback locator strategies
+ * Records which strategy matched each logical element and how long it took,
+ * so the winning strategy is tried first next time and dead ones move to the end
+ */
+public class LocatorRegistry {
+    
+    private static final Logger logger = LogManager.getLogger(LocatorRegistry.class);
+    private static final String KEY_SEPARATOR = "|";
+    
+    // Strategies with this many misses and no hit are considered dead
+    private static final int DEAD_STRATEGY_MISSES = 3;
+    
+    private static final Map<String, StrategyStats> stats = new ConcurrentHashMap<>();
+    // Counts recorded by this JVM since the last save, added to the file so concurrent runs do not lose updates
+    private static final Map<String, StrategyStats> unsaved = new ConcurrentHashMap<>();
+    private static final Path statsFile = Paths.get(
+            ConfigReader.getProperty("locator.stats.file", ".cache/locator-stats.properties"));
+    private static volatile boolean dirty;
+    
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(LocatorRegistry::save, "locator-registry-save"));
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private LocatorRegistry() {
+    }
+    
+    /**
+     * Check if locator learning is enabled
+     * @return true if strategies are reordered from recorded stats
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("locator.learning.enabled", true);
+    }
+    
+    /**
+     * Order strategies for an element: proven winners first, untried ones in declared order, dead ones last
+     * @param elementKey page class and logical element name
+     * @param strategies strategy names in declared order
+     * @return indices into strategies in the order they should be tried
+     */
+    public static List<Integer> order(String elementKey, List<String> strategies) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < strategies.size(); i++) {
+            order.add(i);
+        }
+        if (!isEnabled()) {
+            return order;
+        }
+        order.sort(Comparator
+                .comparing((Integer i) -> statsFor(elementKey, strategies.get(i)).isDead())
+                .thenComparing(i -> -statsFor(elementKey, strategies.get(i)).successRate())
+                .thenComparing(i -> statsFor(elementKey, strategies.get(i)).averageMillis())
+                .thenComparing(i -> i));
+        return order;
+    }
+    
+    /**
+     * Record that a strategy matched the element
+     * @param elementKey page class and logical element name
+     * @param strategy strategy name
+     * @param elapsedMillis time the strategy itself took to locate the element
+     */
+    public static void recordHit(String elementKey, String strategy, long elapsedMillis) {
+        stats.computeIfAbsent(key(elementKey, strategy), k -> new StrategyStats()).hit(elapsedMillis);
+        unsaved.computeIfAbsent(key(elementKey, strategy), k -> new StrategyStats()).hit(elapsedMillis);
+        dirty = true;
+    }
+    
+    /**
+     * Record that a strategy was tried and did not match the element
+     * @param elementKey page class and logical element name
+     * @param strategy strategy name
+     */
+    public static void recordMiss(String elementKey, String strategy) {
+        stats.computeIfAbsent(key(elementKey, strategy), k -> new StrategyStats()).miss();
+        unsaved.computeIfAbsent(key(elementKey, strategy), k -> new StrategyStats()).miss();
+        dirty = true;
+    }
+    
+    /**
+     * Persist recorded stats so the next run starts with the learned order
+     * The file is re-read under a lock and this run's counts are added to it, so forked or sharded JVMs
+     * sharing the file do not overwrite each other
+     */
+    public static synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            if (statsFile.getParent() != null) {
+                Files.createDirectories(statsFile.getParent());
+            }
+            Path lockFile = statsFile.resolveSibling(statsFile.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, StrategyStats> merged = read();
+                    unsaved.forEach((key, delta) -> merged.computeIfAbsent(key, k -> new StrategyStats()).add(delta));
+                    
+                    Properties properties = new Properties();
+                    merged.forEach((key, value) -> properties.setProperty(key, value.serialize()));
+                    Path tempFile = statsFile.resolveSibling(statsFile.getFileName() + ".tmp");
+                    try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                        properties.store(outputStream, "Locator strategy stats: hits,misses,totalMillis");
+                    }
+                    Files.move(tempFile, statsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    lock.release();
+                }
+            }
+            unsaved.clear();
+            dirty = false;
+            logger.info("Locator stats saved to " + statsFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save locator stats: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Load stats recorded by previous runs
+     */
+    private static void load() {
+        stats.putAll(read());
+        logger.info("Loaded " + stats.size() + " locator stats from " + statsFile);
+    }
+    
+    private static Map<String, StrategyStats> read() {
+        Map<String, StrategyStats> values = new ConcurrentHashMap<>();
+        if (!Files.exists(statsFile)) {
+            return values;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(statsFile)) {
+            properties.load(inputStream);
+            for (String key : properties.stringPropertyNames()) {
+                StrategyStats strategyStats = StrategyStats.parse(properties.getProperty(key));
+                if (strategyStats != null) {
+                    values.put(key, strategyStats);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to load locator stats: " + e.getMessage());
+        }
+        return values;
+    }
+    
+    private static StrategyStats statsFor(String elementKey, String strategy) {
+        return stats.getOrDefault(key(elementKey, strategy), StrategyStats.UNSEEN);
+    }
+    
+    private static String key(String elementKey, String strategy) {
+        return elementKey + KEY_SEPARATOR + strategy;
+    }
+    
+    /**
+     * Hit/miss counters and total resolution time of one strategy
+     */
+    private static class StrategyStats {
+        private static final StrategyStats UNSEEN = new StrategyStats();
+        
+        private int hits;
+        private int misses;
+        private long totalMillis;
+        
+        synchronized void hit(long elapsedMillis) {
+            hits++;
+            totalMillis += elapsedMillis;
+        }
+        
+        synchronized void miss() {
+            misses++;
+        }
+        
+        synchronized void add(StrategyStats other) {
+            synchronized (other) {
+                hits += other.hits;
+                misses += other.misses;
+                totalMillis += other.totalMillis;
+            }
+        }
+        
+        synchronized boolean isDead() {
+            return hits == 0 && misses >= DEAD_STRATEGY_MISSES;
+        }
+        
+        synchronized double successRate() {
+            // Smoothed so an untried strategy ranks between proven winners and known misses
+            return (hits + 1.0) / (hits + misses + 2.0);
+        }
+        
+        synchronized long averageMillis() {
+            return hits == 0 ? Long.MAX_VALUE : totalMillis / hits;
+        }
+        
+        synchronized String serialize() {
+            return hits + "," + misses + "," + totalMillis;
+        }
+        
+        static StrategyStats parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                StrategyStats parsed = new StrategyStats();
+                parsed.hits = Integer.parseInt(parts[0].trim());
+                parsed.misses = Integer.parseInt(parts[1].trim());
+                parsed.totalMillis = Long.parseLong(parts[2].trim());
+                return parsed;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+} 
\ No newline at end of file
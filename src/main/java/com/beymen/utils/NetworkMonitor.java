@@ -0,0 +1,119 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Tracks in-flight network requests of a Chrome session through DevTools Protocol Network events
+ * Used by page objects to continue as soon as the site has stopped loading
+ */
+public class NetworkMonitor {
+    
+    private static final Logger logger = LogManager.getLogger(NetworkMonitor.class);
+    
+    // Long-lived connections that never "finish" and must not block idleness
+    private static final Set<String> IGNORED_RESOURCE_TYPES = new HashSet<>(Arrays.asList(
+            "WebSocket", "EventSource", "Ping"));
+    
+    static final Function<JsonInput, Map<String, Object>> PARAMS_MAPPER = input -> input.read(Json.MAP_TYPE);
+    
+    private final DevTools devTools;
+    private final Map<String, Long> inFlightRequests = new ConcurrentHashMap<>();
+    private final long maxRequestAgeNanos;
+    private volatile long lastActivityNanos = System.nanoTime();
+    
+    /**
+     * Constructor
+     * @param devTools DevTools connection with an open session
+     * @param maxRequestAge requests older than this are treated as stuck and ignored
+     */
+    private NetworkMonitor(DevTools devTools, Duration maxRequestAge) {
+        this.devTools = devTools;
+        this.maxRequestAgeNanos = maxRequestAge.toNanos();
+    }
+    
+    /**
+     * Attach a monitor to a Chrome session
+     * @param driver WebDriver supporting DevTools
+     * @return NetworkMonitor, or null if the driver has no DevTools support
+     */
+    public static NetworkMonitor attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            NetworkMonitor monitor = new NetworkMonitor(devTools,
+                    Duration.ofMillis(ConfigReader.getIntProperty("wait.network.maxRequestAgeMillis", 10000)));
+            monitor.start();
+            return monitor;
+        } catch (RuntimeException e) {
+            logger.warn("Network monitoring not available: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Enable the Network domain and start tracking requests
+     */
+    private void start() {
+        devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+        devTools.addListener(new Event<>("Network.requestWillBeSent", PARAMS_MAPPER), params -> {
+            if (!IGNORED_RESOURCE_TYPES.contains(String.valueOf(params.get("type")))) {
+                inFlightRequests.put(String.valueOf(params.get("requestId")), System.nanoTime());
+            }
+            lastActivityNanos = System.nanoTime();
+        });
+        devTools.addListener(new Event<>("Network.loadingFinished", PARAMS_MAPPER), this::onRequestDone);
+        devTools.addListener(new Event<>("Network.loadingFailed", PARAMS_MAPPER), this::onRequestDone);
+    }
+    
+    private void onRequestDone(Map<String, Object> params) {
+        inFlightRequests.remove(String.valueOf(params.get("requestId")));
+        lastActivityNanos = System.nanoTime();
+    }
+    
+    /**
+     * Get the number of requests still in flight, ignoring stuck ones
+     * @return in-flight request count
+     */
+    public int getInFlightCount() {
+        long now = System.nanoTime();
+        inFlightRequests.values().removeIf(startedAt -> now - startedAt > maxRequestAgeNanos);
+        return inFlightRequests.size();
+    }
+    
+    /**
+     * Check if no request has been in flight for the given quiet period
+     * @param quietPeriod required time without network activity
+     * @return true if the network is idle
+     */
+    public boolean isIdle(Duration quietPeriod) {
+        return getInFlightCount() == 0 && System.nanoTime() - lastActivityNanos >= quietPeriod.toNanos();
+    }
+    
+    /**
+     * Get the DevTools connection used by this monitor
+     * @return DevTools
+     */
+    public DevTools getDevTools() {
+        return devTools;
+    }
+} 
\ No newline at end of file
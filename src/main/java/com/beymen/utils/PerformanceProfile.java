@@ -0,0 +1,136 @@
+package com.beymen.utils;
+
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of the timeouts and browser behavior of one named performance profile
+ * Resolved once by ConfigReader.getProfile(); profile keys (profile.<name>.<key>) override the base keys
+ */
+public final class PerformanceProfile {
+    
+    public static final String DEFAULT_NAME = "default";
+    
+    private final String name;
+    private final Duration implicitWait;
+    private final Duration explicitWait;
+    private final Duration pageLoadTimeout;
+    private final Duration pollingInterval;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean headless;
+    
+    private PerformanceProfile(String name, Duration implicitWait, Duration explicitWait, Duration pageLoadTimeout,
+                               Duration pollingInterval, PageLoadStrategy pageLoadStrategy, boolean headless) {
+        this.name = name;
+        this.implicitWait = implicitWait;
+        this.explicitWait = explicitWait;
+        this.pageLoadTimeout = pageLoadTimeout;
+        this.pollingInterval = pollingInterval;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.headless = headless;
+    }
+    
+    /**
+     * Resolve a profile from configuration properties
+     * @param name profile name
+     * @param properties loaded configuration
+     * @return PerformanceProfile
+     */
+    static PerformanceProfile resolve(String name, Properties properties) {
+        String prefix = "profile." + name + ".";
+        if (!DEFAULT_NAME.equals(name)
+                && properties.stringPropertyNames().stream().noneMatch(key -> key.startsWith(prefix))) {
+            throw new IllegalArgumentException("Performance profile not defined: " + name);
+        }
+        String strategy = value(properties, prefix, "pageload.strategy", "normal");
+        PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(strategy);
+        if (pageLoadStrategy == null) {
+            throw new IllegalArgumentException("Unknown page load strategy '" + strategy + "' in profile " + name);
+        }
+        return new PerformanceProfile(name,
+                Duration.ofSeconds(intValue(properties, prefix, "timeout.implicit", 10)),
+                Duration.ofSeconds(intValue(properties, prefix, "timeout.explicit", 15)),
+                Duration.ofSeconds(intValue(properties, prefix, "timeout.pageload", 30)),
+                Duration.ofMillis(intValue(properties, prefix, "timeout.pollingMillis", 200)),
+                pageLoadStrategy,
+                Boolean.parseBoolean(value(properties, prefix, "browser.headless", "false")));
+    }
+    
+    private static String value(Properties properties, String prefix, String key, String defaultValue) {
+        return properties.getProperty(prefix + key, properties.getProperty(key, defaultValue)).trim();
+    }
+    
+    private static int intValue(Properties properties, String prefix, String key, int defaultValue) {
+        String value = value(properties, prefix, key, String.valueOf(defaultValue));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number '" + value + "' for " + prefix + key, e);
+        }
+    }
+    
+    /**
+     * Get profile name
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get implicit wait set on every session
+     * @return implicit wait
+     */
+    public Duration getImplicitWait() {
+        return implicitWait;
+    }
+    
+    /**
+     * Get default timeout of explicit waits
+     * @return explicit wait
+     */
+    public Duration getExplicitWait() {
+        return explicitWait;
+    }
+    
+    /**
+     * Get page load timeout set on every session
+     * @return page load timeout
+     */
+    public Duration getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+    
+    /**
+     * Get polling interval of explicit waits
+     * @return polling interval
+     */
+    public Duration getPollingInterval() {
+        return pollingInterval;
+    }
+    
+    /**
+     * Get page load strategy of new sessions
+     * @return page load strategy
+     */
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+    
+    /**
+     * Check if new sessions start headless
+     * @return true if headless
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+    
+    @Override
+    public String toString() {
+        return "Profile[" + name + ": implicit=" + implicitWait.toMillis() + "ms, explicit=" + explicitWait.toMillis()
+                + "ms, pageLoad=" + pageLoadTimeout.toMillis() + "ms, polling=" + pollingInterval.toMillis()
+                + "ms, strategy=" + pageLoadStrategy + ", headless=" + headless + "]";
+    }
+} 
\ No newline at end of file
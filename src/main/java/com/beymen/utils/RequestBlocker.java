@@ -0,0 +1,256 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Blocks third-party trackers, analytics, chat widgets and media in a Chrome session through DevTools Fetch interception
+ * Only URLs matching a deny pattern are intercepted, so the remaining traffic is not slowed down;
+ * intercepted URLs that also match an allow pattern are let through
+ */
+public class RequestBlocker {
+    
+    private static final Logger logger = LogManager.getLogger(RequestBlocker.class);
+    
+    // Tests in this group check third-party behavior and run without blocking
+    public static final String THIRD_PARTY_GROUP = "thirdParty";
+    
+    private final DevTools devTools;
+    private final List<String> denyPatterns;
+    private final List<String> blockedResourceTypes;
+    private final List<Pattern> allowPatterns;
+    private final Map<String, AtomicLong> blockedByHost = new ConcurrentHashMap<>();
+    private final AtomicLong allowedCount = new AtomicLong();
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private final AtomicLong finishedCount = new AtomicLong();
+    private volatile boolean active;
+    
+    /**
+     * Constructor
+     * @param devTools DevTools connection with an open session
+     * @param denyPatterns URL patterns to block, '*' and '?' wildcards
+     * @param blockedResourceTypes DevTools resource types to block (e.g. Media, Font)
+     * @param allowPatterns URL patterns that are never blocked, '*' and '?' wildcards
+     */
+    private RequestBlocker(DevTools devTools, List<String> denyPatterns, List<String> blockedResourceTypes,
+                           List<String> allowPatterns) {
+        this.devTools = devTools;
+        this.denyPatterns = denyPatterns;
+        this.blockedResourceTypes = blockedResourceTypes;
+        this.allowPatterns = allowPatterns.stream().map(RequestBlocker::toRegex).collect(Collectors.toList());
+    }
+    
+    /**
+     * Check if request blocking is enabled
+     * @return true if network.block.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("network.block.enabled", false);
+    }
+    
+    /**
+     * Attach a blocker to a Chrome session and start blocking
+     * @param driver WebDriver supporting DevTools
+     * @return RequestBlocker, or null if the driver has no DevTools support
+     */
+    public static RequestBlocker attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            RequestBlocker blocker = new RequestBlocker(devTools,
+                    splitList(ConfigReader.getProperty("network.block.deny", "")),
+                    splitList(ConfigReader.getProperty("network.block.resourceTypes", "")),
+                    splitList(ConfigReader.getProperty("network.block.allow", "")));
+            blocker.start();
+            return blocker;
+        } catch (RuntimeException e) {
+            logger.warn("Request blocking not available: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Reset the current session's counters and turn blocking on or off for the test about to run
+     * @param blocking false for tests that check third-party behavior
+     */
+    public static void startTest(boolean blocking) {
+        RequestBlocker blocker = DriverManager.getRequestBlocker();
+        if (blocker != null) {
+            blocker.setActive(blocking);
+            blocker.resetStats();
+        }
+    }
+    
+    /**
+     * Log the current session's blocking summary for a finished test
+     * @param testName test name used in the summary
+     */
+    public static void reportTest(String testName) {
+        RequestBlocker blocker = DriverManager.getRequestBlocker();
+        if (blocker != null) {
+            blocker.report(testName);
+        }
+    }
+    
+    /**
+     * Listen for paused requests and finished loads, then enable interception
+     */
+    private void start() {
+        devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+        devTools.addListener(new Event<>("Fetch.requestPaused", NetworkMonitor.PARAMS_MAPPER), this::onRequestPaused);
+        devTools.addListener(new Event<>("Network.loadingFinished", NetworkMonitor.PARAMS_MAPPER), params -> {
+            Object length = params.get("encodedDataLength");
+            if (length instanceof Number) {
+                transferredBytes.addAndGet(((Number) length).longValue());
+            }
+            finishedCount.incrementAndGet();
+        });
+        setActive(true);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void onRequestPaused(Map<String, Object> params) {
+        String requestId = String.valueOf(params.get("requestId"));
+        String url = String.valueOf(((Map<String, Object>) params.get("request")).get("url"));
+        try {
+            if (!active || isAllowed(url)) {
+                allowedCount.incrementAndGet();
+                devTools.send(new Command<>("Fetch.continueRequest", Collections.singletonMap("requestId", requestId)));
+                return;
+            }
+            Map<String, Object> failParams = new HashMap<>();
+            failParams.put("requestId", requestId);
+            failParams.put("errorReason", "BlockedByClient");
+            devTools.send(new Command<>("Fetch.failRequest", failParams));
+            blockedByHost.computeIfAbsent(hostOf(url), host -> new AtomicLong()).incrementAndGet();
+        } catch (RuntimeException e) {
+            // The page may have navigated away and the request no longer exists
+            logger.debug("Could not resolve paused request " + url + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Check if a URL matches the allow list
+     * @param url request URL
+     * @return true if the URL must not be blocked
+     */
+    boolean isAllowed(String url) {
+        return allowPatterns.stream().anyMatch(pattern -> pattern.matcher(url).matches());
+    }
+    
+    /**
+     * Turn interception on or off for the session, e.g. for tests that check third-party behavior
+     * @param active true to block, false to let every request through
+     */
+    public void setActive(boolean active) {
+        if (this.active == active) {
+            return;
+        }
+        if (active) {
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String denyPattern : denyPatterns) {
+                patterns.add(Collections.singletonMap("urlPattern", denyPattern));
+            }
+            for (String resourceType : blockedResourceTypes) {
+                Map<String, Object> pattern = new HashMap<>();
+                pattern.put("urlPattern", "*");
+                pattern.put("resourceType", resourceType);
+                patterns.add(pattern);
+            }
+            if (patterns.isEmpty()) {
+                return;
+            }
+            devTools.send(new Command<>("Fetch.enable", Collections.singletonMap("patterns", patterns)));
+        } else {
+            devTools.send(new Command<>("Fetch.disable", Collections.emptyMap()));
+        }
+        this.active = active;
+    }
+    
+    /**
+     * Reset counters at the start of a test
+     */
+    public void resetStats() {
+        blockedByHost.clear();
+        allowedCount.set(0);
+        transferredBytes.set(0);
+        finishedCount.set(0);
+    }
+    
+    /**
+     * Get number of blocked requests since the last reset
+     * @return blocked request count
+     */
+    public long getBlockedCount() {
+        return blockedByHost.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+    
+    /**
+     * Log blocked requests per host and bytes transferred by the requests that did load
+     * @param testName test name used in the summary
+     */
+    public void report(String testName) {
+        Map<String, Long> byHost = new TreeMap<>();
+        blockedByHost.forEach((host, count) -> byHost.put(host, count.get()));
+        logger.info(String.format("Request blocking for %s: %s, blocked %d request(s), let through %d intercepted,"
+                        + " %d request(s) loaded %.1f KB %s",
+                testName, active ? "active" : "inactive", getBlockedCount(), allowedCount.get(),
+                finishedCount.get(), transferredBytes.get() / 1024.0, byHost.isEmpty() ? "" : byHost));
+    }
+    
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? url : host;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+    
+    private static List<String> splitList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Convert a DevTools URL pattern ('*' any characters, '?' one character) to a regular expression
+     * @param wildcard URL pattern
+     * @return compiled pattern
+     */
+    private static Pattern toRegex(String wildcard) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : wildcard.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,278 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pre-seeds consent cookies and popup storage keys so site interstitials never render
+ * Chrome sessions are seeded over DevTools before the first navigation; other browsers
+ * are seeded on their first navigation to the site (see HomePage.navigateToHomePage)
+ */
+public class SessionPreparer {
+    
+    private static final Logger logger = LogManager.getLogger(SessionPreparer.class);
+    
+    // Tests in this group exercise the popups themselves and run on an unseeded session
+    public static final String POPUPS_GROUP = "popups";
+    
+    private static final String NOW_PLACEHOLDER = "{now}";
+    
+    // Seeding state per session: identifier of the installed new-document script, NAVIGATED when seeded on the
+    // first visit, PENDING before that, or CLEAR_PENDING when seeding must be removed on the next visit
+    private static final String PENDING = "";
+    private static final String NAVIGATED = "navigated";
+    private static final String CLEAR_PENDING = "clear";
+    private static final Map<WebDriver, String> seededSessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ThreadLocal<Boolean> skippedForCurrentTest = ThreadLocal.withInitial(() -> false);
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private SessionPreparer() {
+    }
+    
+    /**
+     * Check if session pre-seeding is enabled
+     * @return true if consent cookies and storage keys are seeded
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("session.preseed.enabled", true);
+    }
+    
+    /**
+     * Opt the current thread's test out of pre-seeding
+     * @param skip true for tests that cover the popups
+     */
+    public static void skipForCurrentTest(boolean skip) {
+        skippedForCurrentTest.set(skip);
+    }
+    
+    /**
+     * Prepare a freshly created or borrowed session before its first navigation
+     * Also removes seeding left behind by a previous test when the current test opted out
+     * @param driver WebDriver instance
+     */
+    public static void prepare(WebDriver driver) {
+        if (!isEnabled() || skippedForCurrentTest.get()) {
+            clear(driver);
+            return;
+        }
+        // Context handles of a shared browser are seeded on first visit; its CDP session belongs to another tab
+        if (driver instanceof HasDevTools && !SharedBrowser.isContextHandle(driver) && prepareOverDevTools(driver)) {
+            return;
+        }
+        // No DevTools: cookies and storage are written on the first visit of the site
+        seededSessions.put(driver, PENDING);
+    }
+    
+    /**
+     * Check if the session has been seeded so interstitials are not expected to render
+     * @param driver WebDriver instance
+     * @return true if seeded
+     */
+    public static boolean isPrepared(WebDriver driver) {
+        String state = seededSessions.get(driver);
+        return state != null && !state.equals(PENDING) && !state.equals(CLEAR_PENDING);
+    }
+    
+    /**
+     * Navigate to a site URL, seeding or unseeding the session on the way if that could not be done over DevTools
+     * @param driver WebDriver instance
+     * @param url site URL to open
+     */
+    public static void navigate(WebDriver driver, String url) {
+        if (CLEAR_PENDING.equals(seededSessions.get(driver))) {
+            // Seeded cookies and storage keys can only be removed on the site's origin
+            driver.get(url);
+            getCookies().keySet().forEach(name -> driver.manage().deleteCookieNamed(name));
+            ((JavascriptExecutor) driver).executeScript(getStorageClearScript());
+            seededSessions.remove(driver);
+            logger.info("Removed session seeding for popup test on first visit");
+        } else if (PENDING.equals(seededSessions.get(driver))) {
+            // Cookies and storage can only be written on the site's origin
+            driver.get(url);
+            Map<String, String> cookies = getCookies();
+            Date expiry = Date.from(Instant.now().plus(365, ChronoUnit.DAYS));
+            cookies.forEach((name, value) -> driver.manage().addCookie(
+                    new Cookie(name, value, getCookieDomain(), "/", expiry)));
+            ((JavascriptExecutor) driver).executeScript(getStorageScript());
+            seededSessions.put(driver, NAVIGATED);
+            logger.info("Seeded " + cookies.size() + " consent cookie(s) and popup storage keys on first visit");
+        }
+        driver.get(url);
+    }
+    
+    /**
+     * Set cookies with Network.setCookie and install the storage script with Page.addScriptToEvaluateOnNewDocument
+     * @param driver WebDriver supporting DevTools
+     * @return true if the session was seeded
+     */
+    private static boolean prepareOverDevTools(WebDriver driver) {
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            
+            Map<String, String> cookies = getCookies();
+            double expires = Instant.now().plus(365, ChronoUnit.DAYS).getEpochSecond();
+            for (Map.Entry<String, String> cookie : cookies.entrySet()) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("name", cookie.getKey());
+                params.put("value", cookie.getValue());
+                params.put("domain", getCookieDomain());
+                params.put("path", "/");
+                params.put("expires", expires);
+                devTools.send(new Command<>("Network.setCookie", params));
+            }
+            
+            // The script survives pool resets, so it is installed once per session
+            if (!isPrepared(driver) || NAVIGATED.equals(seededSessions.get(driver))) {
+                Map<String, Object> result = devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument",
+                        Collections.singletonMap("source", getStorageScript()),
+                        input -> input.read(Json.MAP_TYPE)));
+                seededSessions.put(driver, String.valueOf(result.get("identifier")));
+            }
+            logger.info("Seeded " + cookies.size() + " consent cookie(s) and popup storage keys over DevTools");
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not seed session over DevTools: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Remove seeding from a session so the popups render again
+     * Only the configured cookies and storage keys are removed; other session state is left alone
+     * @param driver WebDriver instance
+     */
+    private static void clear(WebDriver driver) {
+        String state = seededSessions.remove(driver);
+        if (state == null || state.equals(PENDING)) {
+            // Nothing was written yet
+            return;
+        }
+        if (driver instanceof HasDevTools && !SharedBrowser.isContextHandle(driver) && clearOverDevTools(driver, state)) {
+            logger.info("Removed session seeding for popup test");
+            return;
+        }
+        // No DevTools: cookies and storage keys are removed on the next visit of the site
+        seededSessions.put(driver, CLEAR_PENDING);
+    }
+    
+    /**
+     * Delete seeded cookies with Network.deleteCookies, remove seeded keys with DOMStorage.removeDOMStorageItem
+     * and uninstall the storage script, without navigating to the site
+     * @param driver WebDriver supporting DevTools
+     * @param state seeding state of the session
+     * @return true if the seeding was removed
+     */
+    private static boolean clearOverDevTools(WebDriver driver, String state) {
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            if (!state.equals(NAVIGATED) && !state.equals(CLEAR_PENDING)) {
+                devTools.send(new Command<>("Page.removeScriptToEvaluateOnNewDocument",
+                        Collections.singletonMap("identifier", state)));
+            }
+            for (String name : getCookies().keySet()) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("name", name);
+                params.put("domain", getCookieDomain());
+                params.put("path", "/");
+                devTools.send(new Command<>("Network.deleteCookies", params));
+            }
+            
+            Map<String, Object> storageId = new HashMap<>();
+            storageId.put("securityOrigin", getSiteOrigin());
+            storageId.put("isLocalStorage", true);
+            for (String key : getStorageKeys().keySet()) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("storageId", storageId);
+                params.put("key", key);
+                devTools.send(new Command<>("DOMStorage.removeDOMStorageItem", params));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove session seeding over DevTools: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Parse configured consent cookies (name=value pairs separated by ';')
+     * @return cookie names and values
+     */
+    private static Map<String, String> getCookies() {
+        String now = Instant.now().truncatedTo(ChronoUnit.SECONDS).toString();
+        Map<String, String> cookies = parsePairs(ConfigReader.getProperty("session.preseed.cookies",
+                "OptanonAlertBoxClosed={now};OptanonConsent=groups=C0001:1,C0002:1,C0003:1,C0004:1&interactionCount=1"));
+        cookies.replaceAll((name, value) -> value.replace(NOW_PLACEHOLDER, now));
+        return cookies;
+    }
+    
+    /**
+     * Build a script writing the configured localStorage keys on the site's origin only
+     * @return JavaScript source
+     */
+    private static String getStorageScript() {
+        StringBuilder script = new StringBuilder("try { if (location.hostname.indexOf('")
+                .append(getCookieDomain().replaceFirst("^\\.", "")).append("') >= 0) {");
+        getStorageKeys().forEach((key, value) ->
+                script.append(" localStorage.setItem(").append(jsString(key)).append(", ")
+                        .append(jsString(value)).append(");"));
+        return script.append(" } } catch (e) {}").toString();
+    }
+    
+    /**
+     * Build a script removing the configured localStorage keys from the current page's origin
+     * @return JavaScript source
+     */
+    private static String getStorageClearScript() {
+        StringBuilder script = new StringBuilder("try {");
+        getStorageKeys().keySet().forEach(key ->
+                script.append(" localStorage.removeItem(").append(jsString(key)).append(");"));
+        return script.append(" } catch (e) {}").toString();
+    }
+    
+    private static Map<String, String> getStorageKeys() {
+        return parsePairs(ConfigReader.getProperty("session.preseed.localStorage", ""));
+    }
+    
+    private static String getSiteOrigin() {
+        return ConfigReader.getProperty("base.url", "https://www.beymen.com").replaceFirst("(https?://[^/]+).*", "$1");
+    }
+    
+    private static String getCookieDomain() {
+        return ConfigReader.getProperty("session.preseed.domain", ".beymen.com");
+    }
+    
+    private static Map<String, String> parsePairs(String value) {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String pair : value.split(";")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                pairs.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+            }
+        }
+        return pairs;
+    }
+    
+    private static String jsString(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,309 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * One Chrome process shared by several tests, each in its own isolated browser context
+ * Contexts are created with CDP Target.createBrowserContext and have separate cookies, storage and cache.
+ * Tests get a context-scoped WebDriver handle; the handle switches the shared session to its own tab before
+ * every command, and each switch plus command is serialized on the shared session. The session is started
+ * with page-load strategy none and each context waits for its own page loads outside the lock
+ */
+public class SharedBrowser {
+    
+    private static final Logger logger = LogManager.getLogger(SharedBrowser.class);
+    private static final Map<WebDriver, BrowserContext> contextHandles = Collections.synchronizedMap(new WeakHashMap<>());
+    private static volatile SharedBrowser instance;
+    
+    private final WebDriver driver;
+    private final String anchorWindow;
+    private final Object commandLock = new Object();
+    private final AtomicInteger activeContexts = new AtomicInteger();
+    private final AtomicInteger peakContexts = new AtomicInteger();
+    private final AtomicInteger createdContexts = new AtomicInteger();
+    private final AtomicLong contextNanos = new AtomicLong();
+    private final AtomicLong peakRssMb = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private String focusedWindow;
+    
+    /**
+     * Constructor
+     * @param driver shared Chrome session; its first tab stays open so the session outlives every context
+     */
+    private SharedBrowser(WebDriver driver) {
+        this.driver = driver;
+        this.anchorWindow = driver.getWindowHandle();
+        this.focusedWindow = anchorWindow;
+        // An implicit wait would hold the shared session for every context while one of them waits
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+    }
+    
+    /**
+     * Check if shared browser mode is enabled
+     * @return true if driver.shared.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("driver.shared.enabled", false);
+    }
+    
+    /**
+     * Get the shared browser, starting it on first use
+     * @param driverFactory starts the shared Chrome session
+     * @return SharedBrowser
+     */
+    public static SharedBrowser get(Supplier<WebDriver> driverFactory) {
+        SharedBrowser browser = instance;
+        if (browser == null) {
+            synchronized (SharedBrowser.class) {
+                browser = instance;
+                if (browser == null) {
+                    WebDriver driver = driverFactory.get();
+                    if (!(driver instanceof HasCdp)) {
+                        driver.quit();
+                        throw new IllegalStateException("Shared browser mode requires Chrome DevTools support");
+                    }
+                    browser = new SharedBrowser(driver);
+                    instance = browser;
+                    logger.info("Shared Chrome started for browser contexts");
+                }
+            }
+        }
+        return browser;
+    }
+    
+    /**
+     * Check if a driver is a context-scoped handle of the shared browser
+     * @param driver WebDriver instance
+     * @return true if quitting it only disposes its browser context
+     */
+    public static boolean isContextHandle(WebDriver driver) {
+        return driver != null && contextHandles.containsKey(driver);
+    }
+    
+    /**
+     * Quit the shared browser and log memory and throughput per context
+     * Safe to call more than once
+     */
+    public static void shutdown() {
+        SharedBrowser browser;
+        synchronized (SharedBrowser.class) {
+            browser = instance;
+            instance = null;
+        }
+        if (browser != null) {
+            logger.info(browser.getMetricsSummary());
+            DriverManager.quitSession(browser.driver);
+        }
+    }
+    
+    /**
+     * Create an isolated browser context with one tab and return a handle scoped to it
+     * @return context-scoped WebDriver
+     */
+    public WebDriver newContext() {
+        BrowserContext context;
+        synchronized (commandLock) {
+            Map<String, Object> created = cdp("Target.createBrowserContext", Collections.emptyMap());
+            String contextId = String.valueOf(created.get("browserContextId"));
+            
+            Map<String, Object> targetParams = new HashMap<>();
+            targetParams.put("url", "about:blank");
+            targetParams.put("browserContextId", contextId);
+            if (LaunchProfile.isEnabled()) {
+                Dimension viewport = LaunchProfile.getViewport();
+                targetParams.put("width", viewport.getWidth());
+                targetParams.put("height", viewport.getHeight());
+            }
+            String targetId = String.valueOf(cdp("Target.createTarget", targetParams).get("targetId"));
+            context = new BrowserContext(contextId, targetId);
+        }
+        
+        WebDriver handle = new ContextDecorator(context).decorate(driver);
+        contextHandles.put(handle, context);
+        int active = activeContexts.incrementAndGet();
+        peakContexts.accumulateAndGet(active, Math::max);
+        createdContexts.incrementAndGet();
+        long rssMb = AdmissionController.currentRssMb();
+        peakRssMb.accumulateAndGet(rssMb, Math::max);
+        logger.info("Browser context " + context.contextId + " created (" + active + " active, RSS "
+                + rssMb + " MB, " + (rssMb < 0 ? "n/a" : rssMb / active + " MB") + " per context)");
+        return handle;
+    }
+    
+    /**
+     * Dispose a browser context, closing its tabs and dropping its cookies and storage
+     * @param context context to dispose
+     */
+    private void dispose(BrowserContext context) {
+        if (context.disposed) {
+            return;
+        }
+        context.disposed = true;
+        synchronized (commandLock) {
+            try {
+                cdp("Target.disposeBrowserContext", Collections.singletonMap("browserContextId", context.contextId));
+            } finally {
+                // The disposed tab was possibly focused; park the session on the anchor tab
+                driver.switchTo().window(anchorWindow);
+                focusedWindow = anchorWindow;
+            }
+        }
+        peakRssMb.accumulateAndGet(AdmissionController.currentRssMb(), Math::max);
+        activeContexts.decrementAndGet();
+        contextNanos.addAndGet(System.nanoTime() - context.createdNanos);
+        logger.info("Browser context " + context.contextId + " disposed after "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - context.createdNanos) + " ms");
+    }
+    
+    /**
+     * Switch the shared session to a context's tab unless it already has focus
+     * Must be called while holding the command lock
+     * @param context context about to run a command
+     */
+    private void focus(BrowserContext context) {
+        if (!context.targetId.equals(focusedWindow)) {
+            driver.switchTo().window(context.targetId);
+            focusedWindow = context.targetId;
+        }
+    }
+    
+    /**
+     * Check if a command starts a page load
+     * @param method WebDriver or Navigation method
+     * @return true for get, to, back, forward and refresh
+     */
+    private static boolean isNavigation(Method method) {
+        String name = method.getName();
+        return (method.getDeclaringClass() == WebDriver.class && name.equals("get"))
+                || (method.getDeclaringClass() == WebDriver.Navigation.class
+                && (name.equals("to") || name.equals("back") || name.equals("forward") || name.equals("refresh")));
+    }
+    
+    /**
+     * Wait for a context's page load the way the profile's page-load strategy would, polling document.readyState
+     * The command lock is only held for each poll, not for the whole load
+     * @param context context that started a navigation
+     * @throws TimeoutException if the page does not load within the profile's page-load timeout
+     */
+    private void awaitPageLoad(BrowserContext context) {
+        PerformanceProfile profile = ConfigReader.getProfile();
+        PageLoadStrategy strategy = profile.getPageLoadStrategy();
+        if (strategy == PageLoadStrategy.NONE) {
+            return;
+        }
+        long deadline = System.nanoTime() + profile.getPageLoadTimeout().toNanos();
+        while (true) {
+            Object readyState;
+            synchronized (commandLock) {
+                focus(context);
+                readyState = ((JavascriptExecutor) driver).executeScript("return document.readyState");
+            }
+            if ("complete".equals(readyState) || (strategy == PageLoadStrategy.EAGER && "interactive".equals(readyState))) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Page load in browser context " + context.contextId + " exceeded "
+                        + profile.getPageLoadTimeout().toMillis() + " ms (readyState " + readyState + ")");
+            }
+            try {
+                Thread.sleep(profile.getPollingInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for page load", e);
+            }
+        }
+    }
+    
+    private Map<String, Object> cdp(String command, Map<String, Object> params) {
+        return ((HasCdp) driver).executeCdpCommand(command, params);
+    }
+    
+    /**
+     * Get a one-line summary of shared browser metrics, comparable with the per-process admission summary
+     * @return metrics summary
+     */
+    public String getMetricsSummary() {
+        int created = createdContexts.get();
+        long uptimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return String.format("Shared browser: contexts=%d, peakConcurrent=%d, peakRss=%d MB, rssPerConcurrentContext=%s, "
+                        + "avgContextLifetime=%d ms, throughput=%.1f contexts/min",
+                created, peakContexts.get(), peakRssMb.get(),
+                peakContexts.get() == 0 || peakRssMb.get() < 0 ? "n/a" : peakRssMb.get() / peakContexts.get() + " MB",
+                created == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(contextNanos.get() / created),
+                uptimeMillis == 0 ? 0.0 : created * 60000.0 / uptimeMillis);
+    }
+    
+    /**
+     * Browser context id and the id of its tab (ChromeDriver uses target ids as window handles)
+     */
+    private static class BrowserContext {
+        private final String contextId;
+        private final String targetId;
+        private final long createdNanos = System.nanoTime();
+        private volatile boolean disposed;
+        
+        BrowserContext(String contextId, String targetId) {
+            this.contextId = contextId;
+            this.targetId = targetId;
+        }
+    }
+    
+    /**
+     * Decorator that scopes every call on the shared driver, its elements and navigation to one context
+     * quit() and close() on the handle dispose the context instead of ending the shared session
+     */
+    private class ContextDecorator extends WebDriverDecorator<WebDriver> {
+        
+        private final BrowserContext context;
+        
+        ContextDecorator(BrowserContext context) {
+            this.context = context;
+        }
+        
+        @Override
+        public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == WebDriver.class
+                    && (method.getName().equals("quit") || method.getName().equals("close"))) {
+                synchronized (contextHandles) {
+                    contextHandles.values().remove(context);
+                }
+                dispose(context);
+                return null;
+            }
+            if (context.disposed) {
+                throw new IllegalStateException("Browser context " + context.contextId + " has been disposed");
+            }
+            // Commands go to the session's current tab, so the switch and the command are one locked unit
+            Object result;
+            synchronized (commandLock) {
+                focus(context);
+                result = super.call(target, method, args);
+            }
+            if (isNavigation(method)) {
+                // The shared session does not wait for page loads, so other contexts keep running meanwhile
+                awaitPageLoad(context);
+            }
+            return result;
+        }
+    }
+} 
\ No newline at end of file
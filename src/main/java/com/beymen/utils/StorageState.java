@@ -0,0 +1,317 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named snapshots of a browser's cookies, localStorage and sessionStorage
+ * A snapshot is saved once after a setup journey and restored into new sessions before their first navigation,
+ * so tests start from the journey's end state without repeating it
+ */
+public class StorageState {
+    
+    private static final Logger logger = LogManager.getLogger(StorageState.class);
+    private static final Json JSON = new Json();
+    
+    // sessionStorage key marking a tab whose storage has been restored, so later page loads keep the test's changes
+    private static final String RESTORED_MARKER = "storageState.restored";
+    
+    private static final String CAPTURE_SCRIPT = "var copy = function (storage) { var items = {};"
+            + " for (var i = 0; i < storage.length; i++) { items[storage.key(i)] = storage.getItem(storage.key(i)); }"
+            + " return items; };"
+            + " return { origin: location.origin, localStorage: copy(localStorage), sessionStorage: copy(sessionStorage) };";
+    
+    private static final Map<String, Map<String, Object>> snapshots = new ConcurrentHashMap<>();
+    private static final Map<String, Object> buildLocks = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, RestoreScript> restoreScripts = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ThreadLocal<String> stateForCurrentTest = new ThreadLocal<>();
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private StorageState() {
+    }
+    
+    /**
+     * Select the snapshot restored into the current thread's next session
+     * @param name snapshot name, or null for a session without restored state
+     */
+    public static void useForCurrentTest(String name) {
+        if (name == null) {
+            stateForCurrentTest.remove();
+        } else {
+            stateForCurrentTest.set(name);
+        }
+    }
+    
+    /**
+     * Get the lock that serializes building one snapshot, so parallel workers run its setup journey only once
+     * @param name snapshot name
+     * @return lock object
+     */
+    public static Object getBuildLock(String name) {
+        return buildLocks.computeIfAbsent(name, key -> new Object());
+    }
+    
+    /**
+     * Check if a snapshot can be restored without running its setup journey
+     * Snapshots saved by this run are always available; files of earlier runs only while younger than
+     * storage.state.maxAgeSeconds (0 rebuilds every snapshot once per run)
+     * @param name snapshot name
+     * @return true if the snapshot is available
+     */
+    public static boolean isAvailable(String name) {
+        if (snapshots.containsKey(name)) {
+            return true;
+        }
+        long maxAgeSeconds = ConfigReader.getIntProperty("storage.state.maxAgeSeconds", 0);
+        Path file = getFile(name);
+        try {
+            if (maxAgeSeconds <= 0 || !Files.exists(file) || Files.getLastModifiedTime(file).toInstant()
+                    .isBefore(Instant.now().minus(Duration.ofSeconds(maxAgeSeconds)))) {
+                return false;
+            }
+            snapshots.put(name, read(file));
+            logger.info("Reusing storage state '" + name + "' from " + file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable storage state " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Save the cookies and web storage of a session's current page as a named snapshot
+     * @param driver WebDriver on a page of the site whose state is saved
+     * @param name snapshot name
+     */
+    @SuppressWarnings("unchecked")
+    public static void save(WebDriver driver, String name) {
+        Map<String, Object> page = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        Map<String, String> sessionStorage = new LinkedHashMap<>((Map<String, String>) page.get("sessionStorage"));
+        sessionStorage.remove(RESTORED_MARKER);
+        
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", cookie.getName());
+            entry.put("value", cookie.getValue());
+            entry.put("domain", cookie.getDomain());
+            entry.put("path", cookie.getPath());
+            entry.put("secure", cookie.isSecure());
+            entry.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getSameSite() != null) {
+                entry.put("sameSite", cookie.getSameSite());
+            }
+            if (cookie.getExpiry() != null) {
+                entry.put("expiry", cookie.getExpiry().getTime() / 1000);
+            }
+            cookies.add(entry);
+        }
+        
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("origin", page.get("origin"));
+        snapshot.put("savedAt", Instant.now().toString());
+        snapshot.put("cookies", cookies);
+        snapshot.put("localStorage", page.get("localStorage"));
+        snapshot.put("sessionStorage", sessionStorage);
+        
+        Path file = getFile(name);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tempFile, JSON.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The snapshot still serves this run from memory
+            logger.warn("Failed to write storage state " + file + ": " + e.getMessage());
+        }
+        snapshots.put(name, snapshot);
+        logger.info("Saved storage state '" + name + "': " + cookies.size() + " cookie(s), "
+                + ((Map<?, ?>) page.get("localStorage")).size() + " localStorage and " + sessionStorage.size()
+                + " sessionStorage item(s) of " + page.get("origin"));
+    }
+    
+    /**
+     * Restore the current test's snapshot into a fresh or borrowed session before its first navigation
+     * Also removes a restore script left behind on a pooled session by a previous test
+     * @param driver WebDriver instance
+     */
+    public static void prepare(WebDriver driver) {
+        String name = stateForCurrentTest.get();
+        RestoreScript previous = restoreScripts.get(driver);
+        if (previous != null && !previous.name.equals(name)) {
+            removeRestoreScript(driver, previous);
+        }
+        if (name == null) {
+            return;
+        }
+        Map<String, Object> snapshot = snapshots.get(name);
+        if (snapshot == null) {
+            throw new IllegalStateException("Storage state '" + name + "' has not been saved");
+        }
+        // Context handles of a shared browser have no DevTools session of their own
+        if (driver instanceof HasDevTools && !SharedBrowser.isContextHandle(driver)) {
+            restoreOverDevTools(driver, name, snapshot);
+        } else {
+            restoreOnOrigin(driver, snapshot);
+        }
+    }
+    
+    /**
+     * Set the cookies with Network.setCookie and install a script writing web storage on the snapshot's origin
+     * @param driver WebDriver supporting DevTools
+     * @param name snapshot name
+     * @param snapshot snapshot to restore
+     */
+    private static void restoreOverDevTools(WebDriver driver, String name, Map<String, Object> snapshot) {
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        List<Map<String, Object>> cookies = getCookies(snapshot);
+        for (Map<String, Object> cookie : cookies) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("name", cookie.get("name"));
+            params.put("value", cookie.get("value"));
+            params.put("domain", cookie.get("domain"));
+            params.put("path", cookie.get("path"));
+            params.put("secure", cookie.get("secure"));
+            params.put("httpOnly", cookie.get("httpOnly"));
+            if (cookie.get("sameSite") != null) {
+                params.put("sameSite", cookie.get("sameSite"));
+            }
+            if (cookie.get("expiry") != null) {
+                params.put("expires", ((Number) cookie.get("expiry")).doubleValue());
+            }
+            devTools.send(new Command<>("Network.setCookie", params));
+        }
+        // The script survives pool resets, so a pooled session reusing the same snapshot keeps it
+        if (!restoreScripts.containsKey(driver)) {
+            Map<String, Object> result = devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", getRestoreScript(snapshot)),
+                    input -> input.read(Json.MAP_TYPE)));
+            restoreScripts.put(driver, new RestoreScript(name, String.valueOf(result.get("identifier"))));
+        }
+        logger.info("Restored storage state '" + name + "' (" + cookies.size() + " cookie(s)) over DevTools");
+    }
+    
+    /**
+     * Open the snapshot's origin and write cookies and web storage there (browsers without DevTools)
+     * @param driver WebDriver instance
+     * @param snapshot snapshot to restore
+     */
+    private static void restoreOnOrigin(WebDriver driver, Map<String, Object> snapshot) {
+        String origin = String.valueOf(snapshot.get("origin"));
+        String host = URI.create(origin).getHost();
+        driver.get(origin);
+        int restored = 0;
+        for (Map<String, Object> cookie : getCookies(snapshot)) {
+            // Only cookies of the open origin can be added through WebDriver
+            String domain = String.valueOf(cookie.get("domain")).replaceFirst("^\\.", "");
+            if (!host.endsWith(domain)) {
+                continue;
+            }
+            Cookie.Builder builder = new Cookie.Builder(String.valueOf(cookie.get("name")), String.valueOf(cookie.get("value")))
+                    .domain(String.valueOf(cookie.get("domain")))
+                    .path(String.valueOf(cookie.get("path")))
+                    .isSecure(Boolean.TRUE.equals(cookie.get("secure")))
+                    .isHttpOnly(Boolean.TRUE.equals(cookie.get("httpOnly")));
+            if (cookie.get("sameSite") != null) {
+                builder.sameSite(String.valueOf(cookie.get("sameSite")));
+            }
+            if (cookie.get("expiry") != null) {
+                builder.expiresOn(new Date(((Number) cookie.get("expiry")).longValue() * 1000));
+            }
+            driver.manage().addCookie(builder.build());
+            restored++;
+        }
+        ((JavascriptExecutor) driver).executeScript(getRestoreScript(snapshot));
+        logger.info("Restored storage state (" + restored + " cookie(s)) on " + origin);
+    }
+    
+    private static void removeRestoreScript(WebDriver driver, RestoreScript script) {
+        restoreScripts.remove(driver);
+        try {
+            ((HasDevTools) driver).getDevTools().send(new Command<>("Page.removeScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("identifier", script.identifier)));
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove storage state script: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Build a script writing the snapshot's web storage once per tab on the snapshot's origin
+     * @param snapshot snapshot to restore
+     * @return JavaScript source
+     */
+    private static String getRestoreScript(Map<String, Object> snapshot) {
+        return "try { if (location.origin === " + JSON.toJson(snapshot.get("origin"))
+                + " && !sessionStorage.getItem('" + RESTORED_MARKER + "')) {"
+                + " var local = " + JSON.toJson(snapshot.get("localStorage")) + ";"
+                + " var session = " + JSON.toJson(snapshot.get("sessionStorage")) + ";"
+                + " Object.keys(local).forEach(function (key) { localStorage.setItem(key, local[key]); });"
+                + " Object.keys(session).forEach(function (key) { sessionStorage.setItem(key, session[key]); });"
+                + " sessionStorage.setItem('" + RESTORED_MARKER + "', 'true'); } } catch (e) {}";
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getCookies(Map<String, Object> snapshot) {
+        return (List<Map<String, Object>>) snapshot.getOrDefault("cookies", Collections.emptyList());
+    }
+    
+    private static Map<String, Object> read(Path file) throws IOException {
+        Map<String, Object> snapshot = JSON.toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        for (String key : Set.of("origin", "cookies", "localStorage", "sessionStorage")) {
+            if (!snapshot.containsKey(key)) {
+                throw new IllegalStateException("Missing '" + key + "'");
+            }
+        }
+        return snapshot;
+    }
+    
+    private static Path getFile(String name) {
+        if (!name.matches("[A-Za-z0-9._-]+")) {
+            throw new IllegalArgumentException("Storage state name must be a plain file name but was: " + name);
+        }
+        return Paths.get(ConfigReader.getProperty("storage.state.dir", ".cache/storage-state"), name + ".json");
+    }
+    
+    /**
+     * Snapshot a pooled session's restore script was installed for, and the script's identifier
+     */
+    private static class RestoreScript {
+        private final String name;
+        private final String identifier;
+        
+        RestoreScript(String name, String identifier) {
+            this.name = name;
+            this.identifier = identifier;
+        }
+    }
+} 
\ No newline at end of file
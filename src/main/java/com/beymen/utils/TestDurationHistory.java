@@ -0,0 +1,133 @@
+package com.beymen.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical test durations used to schedule the longest tests first and to balance shards
+ * Durations are smoothed over runs so one slow run does not reshuffle the schedule
+ */
+public class TestDurationHistory {
+    
+    private static final Logger logger = LogManager.getLogger(TestDurationHistory.class);
+    
+    // Weight of the latest run in the smoothed duration
+    private static final double SMOOTHING = 0.5;
+    
+    private static final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private static final Map<String, Long> recorded = new ConcurrentHashMap<>();
+    private static final Path historyFile = Paths.get(
+            ConfigReader.getProperty("schedule.history.file", ".cache/test-durations.properties"));
+    
+    static {
+        durations.putAll(read());
+        logger.info("Loaded " + durations.size() + " test durations from " + historyFile);
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private TestDurationHistory() {
+    }
+    
+    /**
+     * Get the expected duration of a test
+     * @param testKey test key (class.method)
+     * @return smoothed duration in milliseconds, or -1 if the test has never run
+     */
+    public static long getExpectedMillis(String testKey) {
+        return durations.getOrDefault(testKey, -1L);
+    }
+    
+    /**
+     * Record the duration of a finished test invocation
+     * Invocations of a data-driven test are added up, since the whole method is scheduled as one unit
+     * @param testKey test key (class.method)
+     * @param millis duration in milliseconds
+     */
+    public static void record(String testKey, long millis) {
+        recorded.merge(testKey, millis, Long::sum);
+    }
+    
+    /**
+     * Merge this run's durations into the history file
+     * The file is re-read under a lock, so shards finishing at the same time do not overwrite each other
+     */
+    public static synchronized void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        try {
+            if (historyFile.getParent() != null) {
+                Files.createDirectories(historyFile.getParent());
+            }
+            Path lockFile = historyFile.resolveSibling(historyFile.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, Long> merged = read();
+                    recorded.forEach((key, millis) -> merged.merge(key, millis,
+                            (previous, latest) -> Math.round(previous * (1 - SMOOTHING) + latest * SMOOTHING)));
+                    
+                    Properties properties = new Properties();
+                    merged.forEach((key, millis) -> properties.setProperty(key, String.valueOf(millis)));
+                    Path tempFile = historyFile.resolveSibling(historyFile.getFileName() + ".tmp");
+                    try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                        properties.store(outputStream, "Smoothed test durations in milliseconds");
+                    }
+                    Files.move(tempFile, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    lock.release();
+                }
+            }
+            logger.info("Saved " + recorded.size() + " test durations to " + historyFile);
+            recorded.clear();
+        } catch (IOException e) {
+            logger.warn("Failed to save test durations: " + e.getMessage());
+        }
+    }
+    
+    private static Map<String, Long> read() {
+        return read(historyFile);
+    }
+    
+    /**
+     * Read durations from a history file without touching this run's history
+     * @param file history file
+     * @return durations in milliseconds by test key, empty if the file does not exist
+     */
+    public static Map<String, Long> read(Path file) {
+        Map<String, Long> values = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return values;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+            for (String key : properties.stringPropertyNames()) {
+                try {
+                    values.put(key, Long.parseLong(properties.getProperty(key).trim()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring invalid duration for " + key);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to load test durations: " + e.getMessage());
+        }
+        return values;
+    }
+} 
\ No newline at end of file
@@ -1,11 +1,28 @@
 package com.beymen.tests;
 
+import com.beymen.pages.HomePage;
+import com.beymen.pages.SearchMode;
+import com.beymen.utils.AsyncTeardown;
+import com.beymen.utils.CommandMetrics;
 import com.beymen.utils.ConfigReader;
 import com.beymen.utils.DriverManager;
+import com.beymen.utils.LocatorRegistry;
+import com.beymen.utils.RequestBlocker;
+import com.beymen.utils.SessionPreparer;
+import com.beymen.utils.StorageState;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Base Test class containing common test setup and teardown
@@ -15,24 +32,99 @@ public abstract class BaseTest {
     
     protected static final Logger logger = LogManager.getLogger(BaseTest.class);
     
+    private final ThreadLocal<String> currentTestName = new ThreadLocal<>();
+    
     /**
      * Setup method - runs before each test method
+     * Tests in the "popups" group get a session without pre-seeded consent and popup state
+     * Tests in the "thirdParty" group get a session without third-party request blocking
+     * Tests annotated with @UseStorageState get a session restored from the named storage state
+     * @param method test method about to run
      */
     @BeforeMethod
-    public void setUp() {
+    public void setUp(Method method) {
         logger.info("Starting test setup");
+        // Started first, so a storage state journey run for this test is counted with it
+        CommandMetrics.startTest();
         String browserName = ConfigReader.getProperty("browser.name", "chrome");
+        UseStorageState storageState = method.getAnnotation(UseStorageState.class);
+        if (storageState != null) {
+            ensureStorageState(storageState.value(), browserName);
+        }
+        StorageState.useForCurrentTest(storageState == null ? null : storageState.value());
+        currentTestName.set(method.getName());
+        Test test = method.getAnnotation(Test.class);
+        List<String> groups = test == null ? Collections.emptyList() : Arrays.asList(test.groups());
+        SessionPreparer.skipForCurrentTest(groups.contains(SessionPreparer.POPUPS_GROUP));
         DriverManager.initializeDriver(browserName);
+        RequestBlocker.startTest(!groups.contains(RequestBlocker.THIRD_PARTY_GROUP));
         logger.info("Test setup completed");
     }
     
+    /**
+     * Build a storage state unless this run already has it, holding back other workers that need the same state
+     * @param name storage state name
+     * @param browserName browser the setup journey runs in
+     */
+    private void ensureStorageState(String name, String browserName) {
+        synchronized (StorageState.getBuildLock(name)) {
+            if (StorageState.isAvailable(name)) {
+                return;
+            }
+            logger.info("Building storage state: " + name);
+            StorageState.useForCurrentTest(null);
+            SessionPreparer.skipForCurrentTest(false);
+            DriverManager.initializeDriver(browserName);
+            try {
+                WebDriver driver = DriverManager.getDriver();
+                buildStorageState(name, driver);
+                StorageState.save(driver, name);
+            } finally {
+                DriverManager.quitDriver();
+            }
+        }
+    }
+    
+    /**
+     * Setup journey of a storage state, run once per run in its own session before the first test that uses it
+     * The default journey opens the home page with consent accepted and popups dismissed;
+     * override to build other named states, e.g. a seeded cart with CartFixture
+     * @param name storage state name
+     * @param driver session to run the journey in; its state is saved when the journey returns
+     */
+    protected void buildStorageState(String name, WebDriver driver) {
+        new HomePage(driver).navigateToHomePage();
+    }
+    
+    /**
+     * Get the search path configured for the running test ("search.mode.<testMethod>" or "search.mode")
+     * @return search mode
+     */
+    protected SearchMode getSearchMode() {
+        return SearchMode.forTest(currentTestName.get());
+    }
+    
     /**
      * Teardown method - runs after each test method
      */
     @AfterMethod
-    public void tearDown() {
+    public void tearDown(ITestResult result) {
         logger.info("Starting test teardown");
+        String testName = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        CommandMetrics.reportTest(testName);
+        RequestBlocker.reportTest(testName);
         DriverManager.quitDriver();
         logger.info("Test teardown completed");
     }
+    
+    /**
+     * Suite teardown - quits pooled sessions, waits for background driver teardowns, logs pool metrics
+     * and saves learned locator stats
+     */
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        DriverManager.shutdownPools();
+        AsyncTeardown.drain();
+        LocatorRegistry.save();
+    }
 } 
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.beymen.tests;
 import com.beymen.pages.HomePage;
 import com.beymen.pages.SearchResultsPage;
 import com.beymen.pages.ProductDetailPage;
+import com.beymen.pages.SearchMode;
 import com.beymen.pages.CartPage;
 import com.beymen.utils.ConfigReader;
 import com.beymen.utils.DriverManager;
@@ -16,7 +17,7 @@ import org.testng.annotations.Test;
 public class BeymenSearchTest extends BaseTest {
     
     @Test(description = "Test searching for products on Beymen.com")
-    public void testProductSearch() throws InterruptedException {
+    public void testProductSearch() {
         // Use direct Turkish characters to avoid encoding issues
         String firstSearchTerm = "kazak";
         String secondSearchTerm = "gömlek";
@@ -29,7 +30,7 @@ public class BeymenSearchTest extends BaseTest {
         homePage.navigateToHomePage();
         
         // Step 2: Verify that home page is opened
-        Assert.assertTrue(homePage.isHomePageDisplayed(), 
+        Assert.assertTrue(homePage.isHomePageDisplayed(),
             "Home page should be displayed");
         logger.info("Home page is displayed successfully");
         
@@ -37,11 +38,8 @@ public class BeymenSearchTest extends BaseTest {
         SearchResultsPage searchResultsPage = homePage.performCompleteSearch(firstSearchTerm, secondSearchTerm);
         logger.info("Completed search workflow: " + firstSearchTerm + " -> " + secondSearchTerm);
         
-        // Wait for results to load
-        Thread.sleep(2000);
-        
-        // Verify search results are displayed
-        Assert.assertTrue(searchResultsPage.areSearchResultsDisplayed(), 
+        // Verify search results are displayed (waits for the product cards to render)
+        Assert.assertTrue(searchResultsPage.areSearchResultsDisplayed(),
             "Search results should be displayed");
         logger.info("Search results are displayed successfully");
         
@@ -50,9 +48,8 @@ public class BeymenSearchTest extends BaseTest {
             ProductDetailPage productDetailPage = searchResultsPage.selectRandomProduct();
             logger.info("Selected a random product from search results");
             
-            // Verify product detail page is displayed
-            Thread.sleep(2000);
-            Assert.assertTrue(productDetailPage.isProductDetailPageDisplayed(), 
+            // Verify product detail page is displayed (waits for the product title)
+            Assert.assertTrue(productDetailPage.isProductDetailPageDisplayed(),
                 "Product detail page should be displayed");
             
             String productTitle = productDetailPage.getProductTitle();
@@ -62,8 +59,7 @@ public class BeymenSearchTest extends BaseTest {
             CartPage cartPage = productDetailPage.addToCart();
             logger.info("Added product to cart");
             
-            // Verify product was added to cart
-            Thread.sleep(2000);
+            // Verify product was added to cart (waits for the cart page to load)
             int itemCount = cartPage.getCartItemCount();
             Assert.assertTrue(itemCount > 0, "Cart should contain at least one item");
             logger.info("Cart contains " + itemCount + " item(s)");
@@ -83,4 +79,24 @@ public class BeymenSearchTest extends BaseTest {
             logger.info("However, the main search functionality (kazak -> gömlek) was successful!");
         }
     }
+    
+    @Test(description = "Test that search results list products, reached through the configured search path")
+    @UseStorageState("consented")
+    public void testSearchResultsListProducts() {
+        String searchTerm = "gömlek";
+        SearchMode searchMode = getSearchMode();
+        logger.info("Starting search results test for '" + searchTerm + "' via " + searchMode);
+        
+        // The deep link opens the results page directly; the search box needs the home page first
+        HomePage homePage = new HomePage(DriverManager.getDriver());
+        if (searchMode == SearchMode.UI) {
+            homePage.navigateToHomePage();
+        }
+        SearchResultsPage searchResultsPage = homePage.search(searchMode, searchTerm);
+        
+        Assert.assertTrue(searchResultsPage.areSearchResultsDisplayed(), "Search results should be displayed");
+        int resultCount = searchResultsPage.getSearchResultsCount();
+        Assert.assertTrue(resultCount > 0, "Search results should list at least one product");
+        logger.info("Search results list " + resultCount + " product(s)");
+    }
 } 
\ No newline at end of file
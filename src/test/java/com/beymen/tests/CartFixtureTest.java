@@ -0,0 +1,105 @@
+package com.beymen.tests;
+
+import com.beymen.utils.CartFixture;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.Cookie;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cart Fixture Test Class
+ * Runs CartFixture against a local stand-in for the basket endpoints, no browser needed
+ */
+public class CartFixtureTest {
+    
+    private HttpServer server;
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Cookie> browserCookies = new HashSet<>();
+    private volatile int addStatus;
+    
+    @BeforeMethod
+    public void startServer() throws IOException {
+        requests.clear();
+        browserCookies.clear();
+        browserCookies.add(new Cookie("sessionId", "abc123"));
+        addStatus = 200;
+        
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/tr/cart/add", exchange -> {
+            requests.add("add " + readBody(exchange.getRequestBody()) + " cookie=" + exchange.getRequestHeaders().getFirst("Cookie"));
+            exchange.getResponseHeaders().add("Set-Cookie", "basketId=b-42; Path=/");
+            respond(exchange, addStatus, "{\"success\":" + (addStatus == 200) + "}");
+        });
+        server.createContext("/tr/cart/remove", exchange -> {
+            requests.add("remove " + readBody(exchange.getRequestBody()));
+            respond(exchange, 200, "{\"success\":true}");
+        });
+        server.start();
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+    
+    @Test(description = "Seeded items are sent with the session cookies and removed on close")
+    public void testSeedAndTeardown() {
+        try (CartFixture cart = newFixture()) {
+            cart.addItem("SKU-1", 2);
+            
+            Assert.assertEquals(requests.size(), 1);
+            Assert.assertTrue(requests.get(0).contains("\"sku\": \"SKU-1\""), requests.get(0));
+            Assert.assertTrue(requests.get(0).contains("\"quantity\": 2"), requests.get(0));
+            Assert.assertTrue(requests.get(0).endsWith("cookie=sessionId=abc123"), requests.get(0));
+            Assert.assertTrue(browserCookies.stream().anyMatch(c -> c.getName().equals("basketId") && c.getValue().equals("b-42")),
+                "Cookie set by the server should be copied into the browser session");
+        }
+        
+        Assert.assertEquals(requests.size(), 2);
+        Assert.assertTrue(requests.get(1).startsWith("remove") && requests.get(1).contains("SKU-1"), requests.get(1));
+    }
+    
+    @Test(description = "A rejected basket request fails fast with the status code")
+    public void testRejectedRequestThrows() {
+        addStatus = 500;
+        CartFixture cart = newFixture();
+        
+        IllegalStateException error = Assert.expectThrows(IllegalStateException.class, () -> cart.addItem("SKU-2", 1));
+        Assert.assertTrue(error.getMessage().contains("500"), error.getMessage());
+        
+        // Nothing was seeded, so closing must not call the remove endpoint
+        cart.close();
+        Assert.assertEquals(requests.size(), 1);
+    }
+    
+    private CartFixture newFixture() {
+        URI baseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        return new CartFixture(baseUri, () -> new HashSet<>(browserCookies), browserCookies::add);
+    }
+    
+    private static String readBody(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+} 
\ No newline at end of file
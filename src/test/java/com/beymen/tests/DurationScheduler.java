@@ -0,0 +1,179 @@
+package com.beymen.tests;
+
+import com.beymen.utils.ConfigReader;
+import com.beymen.utils.TestDurationHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Duration-aware test scheduler
+ * Runs the longest tests first using durations recorded by earlier runs, and with -Dshard=i/n keeps only
+ * the i-th of n balanced shards. Shards are balanced on schedule.shardHistory.file, one file every CI job
+ * reads the same, or split by test name when it is not set, so every job computes the same split.
+ * Sharded runs leave the local history file alone
+ */
+public class DurationScheduler implements IMethodInterceptor, ITestListener, ISuiteListener {
+    
+    private static final Logger logger = LogManager.getLogger(DurationScheduler.class);
+    
+    private volatile Map<String, Long> expectedMillis = new HashMap<>();
+    private volatile Map<String, Integer> shardAssignment = new HashMap<>();
+    private volatile int selectedShard;
+    private volatile boolean sharded;
+    
+    @Override
+    public void onStart(ISuite suite) {
+        int[] shard = parseShard(System.getProperty("shard", System.getenv("BEYMEN_SHARD")));
+        boolean splitting = shard[1] > 1;
+        // The local history differs between CI machines, so shards are balanced on the shared input only
+        Map<String, Long> shardHistory = splitting ? readShardHistory() : null;
+        
+        // One assignment over the methods of every <test>, since intercept only sees one <test> at a time
+        Map<String, Long> expected = new TreeMap<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            String key = method.getQualifiedName();
+            expected.put(key, splitting ? shardHistory.getOrDefault(key, -1L) : TestDurationHistory.getExpectedMillis(key));
+        }
+        long knownTotal = 0;
+        int knownCount = 0;
+        for (long millis : expected.values()) {
+            if (millis >= 0) {
+                knownTotal += millis;
+                knownCount++;
+            }
+        }
+        // Tests without history are assumed to take as long as an average known test
+        long fallback = knownCount > 0 ? knownTotal / knownCount
+                : ConfigReader.getIntProperty("schedule.defaultMillis", 60000);
+        expected.replaceAll((key, millis) -> millis < 0 ? fallback : millis);
+        
+        List<String> scheduled = new ArrayList<>(expected.keySet());
+        scheduled.sort(Comparator.comparingLong((String key) -> expected.get(key)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        
+        long[] shardMillis = new long[shard[1]];
+        Map<String, Integer> assignment = new HashMap<>();
+        for (String key : scheduled) {
+            // Longest processing time first: each test goes to the least loaded shard, lowest index on ties
+            int target = 0;
+            for (int i = 1; i < shardMillis.length; i++) {
+                if (shardMillis[i] < shardMillis[target]) {
+                    target = i;
+                }
+            }
+            shardMillis[target] += expected.get(key);
+            assignment.put(key, target);
+        }
+        expectedMillis = expected;
+        shardAssignment = assignment;
+        selectedShard = shard[0];
+        sharded = splitting;
+        
+        logger.info("Scheduled " + assignment.values().stream().filter(target -> target == shard[0]).count() + "/"
+                + scheduled.size() + " test(s) of " + suite.getName() + " for shard " + (shard[0] + 1) + "/" + shard[1]
+                + ", expected " + shardMillis[shard[0]] + " ms"
+                + (shard[1] > 1 ? " (shard loads " + Arrays.toString(shardMillis) + " ms)" : ""));
+    }
+    
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        List<IMethodInstance> ordered = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            // Methods the suite did not list up front (none in practice) stay with the first shard
+            String key = method.getMethod().getQualifiedName();
+            if (shardAssignment.getOrDefault(key, 0) == selectedShard) {
+                ordered.add(method);
+            }
+        }
+        ordered.sort(Comparator.comparingLong((IMethodInstance method) ->
+                        expectedMillis.getOrDefault(method.getMethod().getQualifiedName(), 0L)).reversed()
+                .thenComparing(method -> method.getMethod().getQualifiedName()));
+        logger.info("Running " + ordered.size() + "/" + methods.size() + " test(s) of " + context.getName()
+                + " in this shard");
+        return ordered;
+    }
+    
+    /**
+     * Read the durations every shard job balances on
+     * Without schedule.shardHistory.file all tests weigh the same, which splits them round-robin by name
+     * @return durations by test key, empty when no shared history is configured
+     */
+    private static Map<String, Long> readShardHistory() {
+        String file = ConfigReader.getProperty("schedule.shardHistory.file", "");
+        if (file.isEmpty()) {
+            logger.info("No schedule.shardHistory.file set, splitting shards by test name");
+            return new HashMap<>();
+        }
+        Path path = Paths.get(file);
+        if (!Files.isRegularFile(path)) {
+            // A job without the file would compute a different split than the others
+            throw new IllegalStateException("Shard history file not found: " + path.toAbsolutePath());
+        }
+        return TestDurationHistory.read(path);
+    }
+    
+    /**
+     * Parse a shard selector such as "3/8"
+     * @param value shard selector, null or empty for the whole suite
+     * @return zero-based shard index and shard count
+     */
+    static int[] parseShard(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return new int[] {0, 1};
+        }
+        String[] parts = value.trim().split("/");
+        try {
+            int index = Integer.parseInt(parts[0].trim());
+            int count = Integer.parseInt(parts[1].trim());
+            if (parts.length != 2 || count < 1 || index < 1 || index > count) {
+                throw new IllegalArgumentException("Shard must be i/n with 1 <= i <= n but was: " + value);
+            }
+            return new int[] {index - 1, count};
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Shard must be i/n with 1 <= i <= n but was: " + value, e);
+        }
+    }
+    
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+    
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+    
+    private void record(ITestResult result) {
+        TestDurationHistory.record(result.getMethod().getQualifiedName(), result.getEndMillis() - result.getStartMillis());
+    }
+    
+    @Override
+    public void onFinish(ISuite suite) {
+        if (sharded) {
+            // Each job only ran its own slice; the shared shard history is updated outside the test run
+            logger.info("Sharded run, test durations not saved to the history file");
+            return;
+        }
+        TestDurationHistory.save();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.beymen.tests;
+
+import com.beymen.utils.ConfigReader;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fixed Sleep Check Test Class
+ * Fails the build in strict wait mode when page objects or tests sleep for a fixed time instead of
+ * waiting for a condition; no browser needed
+ */
+public class FixedSleepCheckTest {
+    
+    // Resolved from the Maven basedir, so the check does not depend on the working directory
+    private static final Path PROJECT_DIR = Paths.get(System.getProperty("basedir", ""));
+    private static final List<Path> SOURCE_ROOTS = List.of(
+            PROJECT_DIR.resolve("src/main/java/com/beymen/pages"),
+            PROJECT_DIR.resolve("src/test/java/com/beymen/tests"));
+    
+    // Thread.sleep and TimeUnit.X.sleep
+    private static final Pattern FIXED_SLEEP = Pattern.compile("\\bThread\\s*\\.\\s*sleep\\s*\\(|\\.\\s*sleep\\s*\\(");
+    
+    @Test(description = "Page objects and tests contain no fixed sleeps in strict wait mode")
+    public void testNoFixedSleeps() throws IOException {
+        if (!ConfigReader.getBooleanProperty("wait.strict", false)) {
+            throw new SkipException("wait.strict is disabled");
+        }
+        for (Path root : SOURCE_ROOTS) {
+            if (!Files.isDirectory(root)) {
+                throw new SkipException("Sources not found at " + root.toAbsolutePath() + ", set -Dbasedir to the project");
+            }
+        }
+        List<String> violations = new ArrayList<>();
+        for (Path root : SOURCE_ROOTS) {
+            List<Path> sources;
+            try (Stream<Path> paths = Files.walk(root)) {
+                sources = paths.filter(path -> path.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+            }
+            for (Path source : sources) {
+                List<String> lines = Files.readAllLines(source);
+                for (int i = 0; i < lines.size(); i++) {
+                    String line = lines.get(i);
+                    String code = line.trim();
+                    if (code.startsWith("*") || code.startsWith("//") || code.startsWith("/*")) {
+                        continue;
+                    }
+                    if (FIXED_SLEEP.matcher(line).find()) {
+                        violations.add(source + ":" + (i + 1) + ": " + code);
+                    }
+                }
+            }
+        }
+        Assert.assertTrue(violations.isEmpty(), "Fixed sleeps found in strict wait mode, wait for a condition instead:\n"
+                + String.join("\n", violations));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.beymen.tests;
+
+import com.beymen.utils.AdmissionController;
+import com.beymen.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel execution listener
+ * Switches suites to parallel methods with a worker count sized by AdmissionController,
+ * and reports per-worker utilization and admission wait at the end of the run
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener, ISuiteListener, IInvokedMethodListener {
+    
+    private static final Logger logger = LogManager.getLogger(ParallelExecutionListener.class);
+    
+    private final Map<String, WorkerStats> workers = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> invocationStart = new ThreadLocal<>();
+    private volatile long suiteStartNanos;
+    
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!ConfigReader.getBooleanProperty("parallel.enabled", false)) {
+            AdmissionController.setWorkerCount(1);
+            return;
+        }
+        int workerCount = AdmissionController.recommendedWorkers();
+        AdmissionController.setWorkerCount(workerCount);
+        for (XmlSuite suite : suites) {
+            // <test> elements with their own parallel attribute (e.g. parallel="none" for stateful classes) keep it
+            suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            suite.setThreadCount(workerCount);
+        }
+        logger.info("Parallel mode: " + workerCount + " worker(s) for " + Runtime.getRuntime().availableProcessors()
+                + " core(s), RSS budget " + AdmissionController.getBudgetMb() + " MB");
+    }
+    
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStartNanos = System.nanoTime();
+    }
+    
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        invocationStart.set(System.nanoTime());
+    }
+    
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Long start = invocationStart.get();
+        if (start == null) {
+            return;
+        }
+        invocationStart.remove();
+        WorkerStats stats = workers.computeIfAbsent(Thread.currentThread().getName(), name -> new WorkerStats());
+        synchronized (stats) {
+            stats.busyNanos += System.nanoTime() - start;
+            if (method.isTestMethod()) {
+                stats.tests++;
+            }
+        }
+    }
+    
+    @Override
+    public void onFinish(ISuite suite) {
+        long wallNanos = System.nanoTime() - suiteStartNanos;
+        int tests = workers.values().stream().mapToInt(stats -> stats.tests).sum();
+        StringBuilder report = new StringBuilder();
+        report.append("Worker utilization for ").append(suite.getName()).append(": ")
+                .append(workers.size()).append(" worker(s), wall ").append(TimeUnit.NANOSECONDS.toMillis(wallNanos)).append(" ms")
+                .append(String.format(", throughput %.1f tests/min", wallNanos == 0 ? 0.0 : tests * 60e9 / wallNanos));
+        for (Map.Entry<String, WorkerStats> entry : new TreeMap<>(workers).entrySet()) {
+            WorkerStats stats = entry.getValue();
+            report.append(String.format("%n  %-28s tests=%d, busy=%d ms (%.0f%%), admissionWait=%d ms",
+                    entry.getKey(), stats.tests, TimeUnit.NANOSECONDS.toMillis(stats.busyNanos),
+                    wallNanos == 0 ? 0.0 : 100.0 * stats.busyNanos / wallNanos,
+                    AdmissionController.getWaitMillis(entry.getKey())));
+        }
+        logger.info(report.toString());
+        logger.info(AdmissionController.getMetricsSummary());
+    }
+    
+    /**
+     * Busy time and test count of one worker thread
+     */
+    private static class WorkerStats {
+        private long busyNanos;
+        private int tests;
+    }
+} 
\ No newline at end of file
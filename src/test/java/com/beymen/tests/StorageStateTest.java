@@ -0,0 +1,154 @@
+package com.beymen.tests;
+
+import com.beymen.utils.StorageState;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Storage State Test Class
+ * Saves and restores a snapshot through a recording WebDriver stand-in, no browser needed
+ */
+public class StorageStateTest {
+    
+    private static final String ORIGIN = "https://www.beymen.com";
+    
+    private String stateName;
+    private Set<Cookie> cookies;
+    private Map<String, String> localStorage;
+    private Map<String, String> sessionStorage;
+    private List<String> navigations;
+    private List<String> scripts;
+    
+    @BeforeMethod
+    public void setUpBrowser() {
+        stateName = "storage-state-test-" + System.nanoTime();
+        cookies = new HashSet<>();
+        localStorage = new LinkedHashMap<>();
+        sessionStorage = new LinkedHashMap<>();
+        navigations = new ArrayList<>();
+        scripts = new ArrayList<>();
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void tearDownState() throws IOException {
+        StorageState.useForCurrentTest(null);
+        Files.deleteIfExists(Paths.get(".cache/storage-state", stateName + ".json"));
+    }
+    
+    @Test(description = "A saved state is written as JSON and restored into a new session on its origin")
+    public void testSaveAndRestoreRoundTrip() throws IOException {
+        Date expiry = new Date((System.currentTimeMillis() / 1000 + 3600) * 1000);
+        cookies.add(new Cookie.Builder("OptanonAlertBoxClosed", "2026-01-01").domain(".beymen.com").path("/")
+                .expiresOn(expiry).isSecure(true).build());
+        cookies.add(new Cookie.Builder("tracker", "t-1").domain(".example.net").path("/").build());
+        localStorage.put("genderPopupShown", "true");
+        sessionStorage.put("locale", "tr-TR");
+        // Left by an earlier restore in this tab; must not be saved into the snapshot
+        sessionStorage.put("storageState.restored", "true");
+        
+        Assert.assertFalse(StorageState.isAvailable(stateName), "Unsaved state should not be available");
+        StorageState.save(newDriver(), stateName);
+        Assert.assertTrue(StorageState.isAvailable(stateName));
+        
+        String json = new String(Files.readAllBytes(Paths.get(".cache/storage-state", stateName + ".json")),
+                StandardCharsets.UTF_8);
+        Assert.assertTrue(json.contains("\"genderPopupShown\": \"true\""), json);
+        Assert.assertTrue(json.contains("\"locale\": \"tr-TR\""), json);
+        Assert.assertFalse(json.contains("storageState.restored"), json);
+        
+        // Restore into a fresh session without DevTools
+        cookies.clear();
+        StorageState.useForCurrentTest(stateName);
+        StorageState.prepare(newDriver());
+        
+        Assert.assertEquals(navigations, List.of(ORIGIN));
+        Assert.assertEquals(cookies.size(), 1, "Only cookies of the snapshot's origin can be added: " + cookies);
+        Cookie restored = cookies.iterator().next();
+        Assert.assertEquals(restored.getName(), "OptanonAlertBoxClosed");
+        Assert.assertEquals(restored.getExpiry(), expiry);
+        Assert.assertTrue(restored.isSecure());
+        
+        String restoreScript = scripts.get(scripts.size() - 1);
+        Assert.assertTrue(restoreScript.contains("location.origin === " + new Json().toJson(ORIGIN)), restoreScript);
+        Assert.assertTrue(restoreScript.contains("!sessionStorage.getItem('storageState.restored')"), restoreScript);
+        Assert.assertTrue(restoreScript.contains("\"genderPopupShown\": \"true\""), restoreScript);
+        Assert.assertTrue(restoreScript.contains("\"locale\": \"tr-TR\""), restoreScript);
+    }
+    
+    @Test(description = "Restoring a state that was never saved fails fast")
+    public void testRestoreUnknownStateThrows() {
+        StorageState.useForCurrentTest(stateName);
+        IllegalStateException error = Assert.expectThrows(IllegalStateException.class,
+                () -> StorageState.prepare(newDriver()));
+        Assert.assertTrue(error.getMessage().contains(stateName), error.getMessage());
+        Assert.assertTrue(navigations.isEmpty());
+    }
+    
+    /**
+     * Stand-in for a browser session on the site's origin, recording navigations, cookies and scripts
+     * @return WebDriver that also implements JavascriptExecutor
+     */
+    private WebDriver newDriver() {
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.Options.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCookies":
+                            return new HashSet<>(cookies);
+                        case "addCookie":
+                            cookies.add((Cookie) args[0]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubDriver";
+                        case "manage":
+                            return options;
+                        case "get":
+                            navigations.add((String) args[0]);
+                            return null;
+                        case "executeScript":
+                            String script = (String) args[0];
+                            scripts.add(script);
+                            if (script.contains("copy(localStorage)")) {
+                                Map<String, Object> page = new HashMap<>();
+                                page.put("origin", ORIGIN);
+                                page.put("localStorage", new LinkedHashMap<>(localStorage));
+                                page.put("sessionStorage", new LinkedHashMap<>(sessionStorage));
+                                return page;
+                            }
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.beymen.tests;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Starts a test from a saved storage state (cookies, localStorage and sessionStorage)
+ * The state is built once per run by BaseTest.buildStorageState and restored before the first navigation
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface UseStorageState {
+    
+    /**
+     * Storage state name, also the snapshot file name
+     * @return state name
+     */
+    String value();
+} 
\ No newline at end of file